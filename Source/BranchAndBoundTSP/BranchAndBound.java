@@ -6,27 +6,95 @@ import java.util.stream.Collectors;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 import Source.Datastructures.Graph.Exceptions.NodeNotFoundExceptionGraph;
+import Source.Datastructures.BestFirstBlockingQueue;
+import Source.Datastructures.FrontierQueue;
 import Source.Datastructures.LifoBlockingQueue;
 import Source.Datastructures.Graph.*;
 import Source.BranchAndBoundTSP.Exceptions.NotSolvableCaseException;
+import Source.BranchAndBoundTSP.Events.BranchEvent;
+import Source.BranchAndBoundTSP.Events.IncumbentEvent;
+import Source.BranchAndBoundTSP.Events.PruneEvent;
+import Source.BranchAndBoundTSP.Events.QueueWaitEvent;
+import jdk.jfr.EventType;
 
 /**
  * Implements the Branch and Bound algorithm for solving the Traveling Salesman Problem (TSP).
  */
 
-public class BranchAndBound {
+public class BranchAndBound implements AutoCloseable {
 
     private Graph graph;
     private final GraphNode targetNode;
     private final List<GraphNode> targetNodes;
     public boolean IfErrorThenTerminate = true;
-    private BlockingQueue<IntermediateProblem> subTaskQueue;
-    private final ExecutorService executorService;
+    private FrontierQueue<IntermediateProblem> subTaskQueue;
+    private ExecutorService executorService;
+    //if true the children of a node are evaluated concurrently on executorService
+    private boolean parallelSiblingEvaluation = false;
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+    //caps compute parallelism in VIRTUAL_THREADS mode, null otherwise
+    private Semaphore cpuPermits = null;
     private int threadNumber;
-    public static float lowestBound = Float.MAX_VALUE;
-    public static float highestBound = Float.MIN_VALUE;
+    private final String policy;
+    //sub-problems that have been enqueued but not yet fully processed (children already published)
+    private final AtomicInteger pendingProblems = new AtomicInteger();
+    //workers of the current run, each publishes the lowest bound of the batch it holds
+    private final Set<ComputeTask> runningWorkers = ConcurrentHashMap.newKeySet();
+    //sub-problems taken from the frontier whose bound a worker has published, compared with the queue's taken count
+    private final AtomicLong publishedTakes = new AtomicLong();
+    //last lowest open bound computed exactly, a valid lower bound for the rest of the run
+    private final AtomicInteger lastLowestOpenBound = new AtomicInteger(Integer.MAX_VALUE);
+    //attempts at an exact lowest open bound before falling back to lastLowestOpenBound
+    private static final int OPEN_BOUND_ATTEMPTS = 4;
+    //upper limit for the number of sub-problems a worker drains from the queue in one go
+    private static final int MAX_BATCH_SIZE = 16;
+    //bounds of the elastic worker pool, 0 means "use the thread count passed to processTask"
+    private int minWorkers = 0;
+    private int maxWorkers = 0;
+    //queued sub-problems per running worker above which one more worker is started
+    private static final int WORKER_SPAWN_THRESHOLD = 4;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger peakWorkers = new AtomicInteger();
+    private final LongAdder workerBusyNanos = new LongAdder();
+    private final LongAdder workerAliveNanos = new LongAdder();
+    //pool and futures of the current run, used to start workers while the search is running
+    private ExecutorService workerPool;
+    private final Queue<Future<Void>> workerFutures = new ConcurrentLinkedQueue<>();
+    //cooperative stop of the current run: set by cancellation or by the deadline
+    private final AtomicReference<Solution.TerminationReason> stopReason = new AtomicReference<>();
+    private volatile boolean cancelRequested = false;
+    //future of the asynchronous solve being run, null for synchronous runs
+    private volatile Future<Solution> cancellableResult = null;
+    private volatile long deadlineNanos = 0;
+    private volatile boolean hasDeadline = false;
+    //early termination: a node is closed when its bound is within max(absolute, relative * incumbent) of the incumbent
+    private double relativeGapTolerance = 0;
+    private int absoluteGapTolerance = 0;
+    //lowest bound among the nodes closed only thanks to the tolerance, it limits the certified lower bound
+    private final AtomicInteger lowestToleranceClosedBound = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicLong lastGapCheckNanos = new AtomicLong();
+    //the global lower bound is recomputed at most this often
+    private static final long GAP_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    //improving tours are handed to subscribers on the publisher's executor, never on the worker
+    private final LatestValuePublisher<Incumbent> incumbentPublisher = new LatestValuePublisher<>();
+    private volatile long runStartMillis;
+    //null unless somebody listens, so that the workers skip instrumentation entirely
+    private volatile SearchListener searchListener = null;
+    //registered over JMX while a search is running
+    private final SolverMetrics metrics = new SolverMetrics(this);
+    //per-phase latencies of the current (or last) run
+    private volatile PhaseProfiler phaseProfiler = new PhaseProfiler();
+    //the JFR events are only created while a recording has them enabled
+    private static final EventType QUEUE_WAIT_EVENT = EventType.getEventType(QueueWaitEvent.class);
+    private static final EventType BRANCH_EVENT = EventType.getEventType(BranchEvent.class);
+    private static final EventType PRUNE_EVENT = EventType.getEventType(PruneEvent.class);
+    private static final EventType INCUMBENT_EVENT = EventType.getEventType(IncumbentEvent.class);
 
     /**
      * Constructs a BranchAndBound instance with specified graph, target node, and thread number.
@@ -36,19 +104,268 @@ public class BranchAndBound {
      * @param threadNumber The number of threads to use for parallel computing.
      */
     public BranchAndBound(Graph graph, GraphNode targetNode, int threadNumber, String policy) {
-        if (policy.equals("BestFS")){
-            this.subTaskQueue = new PriorityBlockingQueue<>();
-        } else if (policy.equals("DFS")){
-            this.subTaskQueue = new LifoBlockingQueue<>();
-        } else {
-            throw new IllegalArgumentException("Policy not supported");
-        }
+        this.policy = policy;
+        this.subTaskQueue = createFrontierQueue();
         this.graph = graph.clone();
         int random = new Random().nextInt(graph.getNodes().size());
         this.targetNode = (targetNode != null) ? targetNode : graph.getNodes().get(random);
         this.targetNodes = graph.getNodes();
         this.threadNumber = (threadNumber > 0) ? threadNumber : Runtime.getRuntime().availableProcessors();
-        this.executorService = Executors.newFixedThreadPool(this.threadNumber);
+    }
+
+    /**
+     * Creates an empty frontier queue matching the visit policy.
+     * Both implementations insert a whole collection under a single lock acquisition and
+     * report their size without locking, so the workers can size batches for free.
+     *
+     * @return A queue ordered by bound (BestFS) or last-in-first-out (DFS).
+     */
+    private FrontierQueue<IntermediateProblem> createFrontierQueue() {
+        if (policy.equals("BestFS")){
+            return new BestFirstBlockingQueue<>();
+        } else if (policy.equals("DFS")){
+            return new LifoBlockingQueue<>();
+        } else {
+            throw new IllegalArgumentException("Policy not supported");
+        }
+    }
+
+    /**
+     * Enables or disables the parallel evaluation of the children of a node.
+     * Every child computes its own 1-tree, so on large graphs evaluating siblings concurrently
+     * reduces the latency of a branching step; it mostly pays off while the frontier is narrow
+     * and the workers have no other node to work on. Children are enqueued in the same order
+     * as with sequential evaluation.
+     *
+     * @param parallelSiblingEvaluation True to evaluate siblings on the solver's pool.
+     */
+    public void setParallelSiblingEvaluation(boolean parallelSiblingEvaluation) {
+        this.parallelSiblingEvaluation = parallelSiblingEvaluation;
+    }
+
+    /**
+     * Selects the kind of threads used for the workers and for sibling evaluation.
+     * With VIRTUAL_THREADS every worker runs on its own virtual thread and only holds one of the
+     * JVM-wide CPU permits while it is processing sub-problems, not while it waits on the queue.
+     *
+     * @param executionMode The execution mode for the next runs.
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = Objects.requireNonNull(executionMode);
+    }
+
+    /**
+     * Makes the number of workers follow the size of the frontier.
+     * A run starts with minWorkers workers; a worker that finds more than a few queued sub-problems
+     * per running worker starts another one, up to maxWorkers, and a worker that finds the queue
+     * empty retires while more than minWorkers are running. Passing 0 for both restores the fixed
+     * pool sized by the thread count given to processTask.
+     *
+     * @param minWorkers The number of workers kept while the frontier is shallow, at least 1.
+     * @param maxWorkers The maximum number of concurrent workers, at least minWorkers.
+     */
+    public void setElasticWorkers(int minWorkers, int maxWorkers) {
+        if (minWorkers == 0 && maxWorkers == 0) {
+            this.minWorkers = 0;
+            this.maxWorkers = 0;
+            return;
+        }
+        if (minWorkers < 1 || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException("Worker bounds must satisfy 1 <= min <= max");
+        }
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+    }
+
+    /**
+     * Sets the optimality gap accepted in exchange for an earlier end of the search.
+     * A sub-problem whose bound is within the tolerance of the incumbent is closed for bound,
+     * and the search stops as soon as the global lower bound (the lowest bound over the frontier
+     * and the nodes being processed) is within the tolerance; the Solution then reports the
+     * certified gap. The tolerance is the larger of the absolute value and the relative value
+     * times the incumbent cost. Passing 0 for both restores the exact search.
+     *
+     * @param relativeGap The accepted relative gap, e.g. 0.005 for 0.5%.
+     * @param absoluteGap The accepted absolute gap, in cost units.
+     */
+    public void setGapTolerance(double relativeGap, int absoluteGap) {
+        if (relativeGap < 0 || absoluteGap < 0 || Double.isNaN(relativeGap)) {
+            throw new IllegalArgumentException("Gap tolerances must not be negative");
+        }
+        this.relativeGapTolerance = relativeGap;
+        this.absoluteGapTolerance = absoluteGap;
+    }
+
+    /**
+     * Returns the gap accepted for a given incumbent cost.
+     *
+     * @param incumbentCost The cost of the best tour found so far.
+     * @return The accepted gap, 0 if there is no incumbent yet or no tolerance is set.
+     */
+    private double gapTolerance(int incumbentCost) {
+        if (incumbentCost == Integer.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(absoluteGapTolerance, relativeGapTolerance * incumbentCost);
+    }
+
+    private boolean hasGapTolerance() {
+        return relativeGapTolerance > 0 || absoluteGapTolerance > 0;
+    }
+
+    /**
+     * Returns the publisher of the improving tours found by the searches of this instance.
+     * Every new incumbent is offered without blocking the worker that found it. A subscriber that
+     * is still busy with an earlier tour skips the intermediate ones: it always receives the
+     * latest incumbent, which is also available from the returned Solution. The publisher is
+     * completed by {@link #close()}.
+     *
+     * @return The publisher of improving tours.
+     */
+    public Flow.Publisher<Incumbent> getIncumbentPublisher() {
+        return incumbentPublisher;
+    }
+
+    /**
+     * Registers a callback invoked asynchronously with every improving tour.
+     *
+     * @param listener The callback, run on the publisher's executor.
+     * @return A future completed when this instance is closed.
+     */
+    public CompletableFuture<Void> addIncumbentListener(Consumer<Incumbent> listener) {
+        return incumbentPublisher.consume(listener);
+    }
+
+    /**
+     * Attaches a listener to the search events of the following runs.
+     * Unlike incumbent listeners it is invoked synchronously on the workers; see {@link SearchListener}.
+     *
+     * @param listener The listener to add.
+     */
+    public void addSearchListener(SearchListener listener) {
+        searchListener = SearchListener.compose(searchListener, Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Publishes a new incumbent if anybody is listening.
+     *
+     * @param cost The cost of the tour.
+     * @param tour The graph of the tour.
+     */
+    private void publishIncumbent(int cost, Graph tour) {
+        if (incumbentPublisher.hasSubscribers()) {
+            incumbentPublisher.offer(new Incumbent(cost, tour, System.currentTimeMillis() - runStartMillis));
+        }
+    }
+
+    /**
+     * Releases the resources kept between runs: completes the incumbent subscribers, once they have
+     * received the latest tour, and shuts down the pool used for sibling evaluation.
+     * The instance must not be used for further searches.
+     */
+    @Override
+    public synchronized void close() {
+        incumbentPublisher.close();
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Returns the JMX view of this instance, registered on the platform MBean server while a search runs.
+     *
+     * @return The metrics of this instance.
+     */
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the phase latencies of the running search, or of the last one once it has ended.
+     *
+     * @return The profiler of the current or last run.
+     */
+    public PhaseProfiler getPhaseProfiler() {
+        return phaseProfiler;
+    }
+
+    long getRunStartMillis() {
+        return runStartMillis;
+    }
+
+    /**
+     * Returns the number of open sub-problems, queued or being processed, without locking the frontier.
+     *
+     * @return The number of open sub-problems.
+     */
+    int getOpenProblemCount() {
+        return pendingProblems.get();
+    }
+
+    /**
+     * Returns the number of workers currently running.
+     *
+     * @return The number of running workers.
+     */
+    public int getActiveWorkerCount() {
+        return activeWorkers.get();
+    }
+
+    /**
+     * Returns the highest number of workers that ran at the same time during the last run.
+     *
+     * @return The peak number of workers.
+     */
+    public int getPeakWorkerCount() {
+        return peakWorkers.get();
+    }
+
+    /**
+     * Returns the fraction of worker time spent processing sub-problems rather than waiting
+     * on the queue, over the workers that have already retired or finished.
+     *
+     * @return The utilisation, between 0 and 1.
+     */
+    public double getWorkerUtilisation() {
+        long alive = workerAliveNanos.sum();
+        return alive == 0 ? 0 : Math.min(1.0, (double) workerBusyNanos.sum() / alive);
+    }
+
+    /**
+     * Solves several instances concurrently, one task per instance, on threads of the given mode.
+     * In VIRTUAL_THREADS mode all the instances share the JVM-wide CPU permits, so the number of
+     * instances is not limited by the number of platform threads.
+     *
+     * @param graphs The graphs of the instances to solve.
+     * @param policy The visit policy, BestFS or DFS.
+     * @param numberOfThreads The number of workers of every instance.
+     * @param executionMode The kind of threads to run the instances and their workers on.
+     * @return The solutions, in the same order as the graphs.
+     * @throws InterruptedException If the caller is interrupted while waiting.
+     * @throws ExecutionException If one of the instances fails, e.g. with NotSolvableCaseException.
+     */
+    public static List<Solution> processBatch(List<Graph> graphs, String policy, int numberOfThreads,
+                                              ExecutionMode executionMode) throws InterruptedException, ExecutionException {
+        ExecutorService batchPool = executionMode.newExecutor(Math.min(Math.max(1, graphs.size()),
+                Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Solution>> futures = new ArrayList<>(graphs.size());
+            for (Graph instance : graphs) {
+                futures.add(batchPool.submit(() -> {
+                    BranchAndBound solver = new BranchAndBound(instance, null, numberOfThreads, policy);
+                    solver.setExecutionMode(executionMode);
+                    solver.IfErrorThenTerminate = false;
+                    return solver.processTask(false, numberOfThreads);
+                }));
+            }
+            List<Solution> solutions = new ArrayList<>(futures.size());
+            for (Future<Solution> future : futures) {
+                solutions.add(future.get());
+            }
+            return solutions;
+        } finally {
+            batchPool.shutdownNow();
+        }
     }
 
     /**
@@ -81,14 +398,82 @@ public class BranchAndBound {
      * @throws NotSolvableCaseException If the problem cannot be solved.
      */
     public Solution processTask(boolean excludeUnidirectionalNodes, int numberOfThreads) throws NotSolvableCaseException, NodeNotFoundExceptionGraph {
+        cancelRequested = false;
+        return runSearch(excludeUnidirectionalNodes, numberOfThreads, null, IfErrorThenTerminate, null);
+    }
+
+    /**
+     * Solves the TSP problem asynchronously.
+     * The search runs on a thread of the current execution mode and never terminates the JVM:
+     * worker errors complete the returned future exceptionally. Cancelling the future stops the
+     * workers cooperatively, and so does the time limit of the options; on the time limit the future
+     * completes with a Solution holding the best tour found so far (if any), the lowest bound
+     * still open in the frontier and the resulting optimality gap.
+     * A BranchAndBound instance runs one search at a time.
+     *
+     * @param options The options of this solve.
+     * @return A future completed with the solution of the search.
+     */
+    public CompletableFuture<Solution> solve(SolveOptions options) {
+        CompletableFuture<Solution> result = new CompletableFuture<>();
+        int numberOfThreads = options.getNumberOfThreads() > 0 ? options.getNumberOfThreads() : threadNumber;
+        long startNanos = System.nanoTime();
+        //reset before the search is started, so that a cancel issued in between is not lost
+        cancelRequested = false;
+        ExecutorService runner = executionMode.newExecutor(1);
+        runner.submit(() -> {
+            if (result.isCancelled()) {
+                return;
+            }
+            try {
+                Long deadline = options.getTimeLimit().map(limit -> startNanos + limit.toNanos()).orElse(null);
+                result.complete(runSearch(options.isExcludeUnidirectionalNodes(), numberOfThreads, deadline, false,
+                        result));
+            } catch (CompletionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        runner.shutdown();
+        result.whenComplete((solution, failure) -> {
+            if (result.isCancelled()) {
+                cancelRequested = true;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs a search on the calling thread.
+     *
+     * @param excludeUnidirectionalNodes If true, one-way nodes will be ignored.
+     * @param numberOfThreads The number of threads to use for parallel computing.
+     * @param deadlineNanos The System.nanoTime() at which the search stops, null for no limit.
+     * @param exitOnWorkerError If true a failing worker terminates the JVM, otherwise a CompletionException is thrown.
+     * @param result The future of an asynchronous solve, whose cancellation stops the workers; null otherwise.
+     * @return The result of the TSP problem.
+     * @throws NotSolvableCaseException If the problem cannot be solved.
+     */
+    private Solution runSearch(boolean excludeUnidirectionalNodes, int numberOfThreads, Long deadlineNanos,
+                               boolean exitOnWorkerError, Future<Solution> result)
+            throws NotSolvableCaseException, NodeNotFoundExceptionGraph {
         if (numberOfThreads <= 0) {
             throw new IllegalArgumentException("Threads must be at least 1");
         }
+        stopReason.set(null);
+        cancellableResult = result;
+        this.hasDeadline = deadlineNanos != null;
+        this.deadlineNanos = hasDeadline ? deadlineNanos : 0;
         List<Integer> UnidirectionalNodesKeys = identifyOneWayNodes(excludeUnidirectionalNodes);
         Solution optimalSolution = new Solution(graph, Integer.MAX_VALUE);
+        phaseProfiler = new PhaseProfiler();
         initializeRootProblem(optimalSolution);
-        ExecutorService threadPool = Executors.newFixedThreadPool(numberOfThreads);
-        return solveTSPWithParallelComputing(optimalSolution, threadPool);
+        cpuPermits = executionMode.cpuPermits();
+        int initialWorkers = (minWorkers > 0) ? minWorkers : numberOfThreads;
+        int workerLimit = (maxWorkers > 0) ? maxWorkers : numberOfThreads;
+        ExecutorService threadPool = executionMode.newExecutor(workerLimit);
+        return solveTSPWithParallelComputing(optimalSolution, threadPool, initialWorkers, workerLimit, exitOnWorkerError);
     }
 
     /**
@@ -121,9 +506,19 @@ public class BranchAndBound {
      *
      * @param minSolution The current minimum TSP result to be updated.
      */
-    private void initializeRootProblem(Solution minSolution) throws NodeNotFoundExceptionGraph {
-        subTaskQueue = new PriorityBlockingQueue<IntermediateProblem>();
-        IntermediateProblem rootProblem = new IntermediateProblem(graph, targetNode);
+    void initializeRootProblem(Solution minSolution) throws NodeNotFoundExceptionGraph {
+        subTaskQueue = createFrontierQueue();
+        PhaseProfiler profiler = phaseProfiler;
+        LatencyHistogram[] timings = profiler.acquire();
+        IntermediateProblem rootProblem;
+        try {
+            rootProblem = new IntermediateProblem(graph, new ArrayList<>(0), new ArrayList<>(0), targetNode, 0, timings);
+        } finally {
+            profiler.release(timings);
+        }
+        pendingProblems.set(1);
+        publishedTakes.set(0);
+        lastLowestOpenBound.set(rootProblem.getBound());
         subTaskQueue.add(rootProblem);
         minSolution.incrementNodes(1);
 
@@ -156,7 +551,32 @@ public class BranchAndBound {
         return unidirectionalNodeKeys;
     }
 
-    private int generateBranches(IntermediateProblem currentProblem) throws NodeNotFoundExceptionGraph {
+    /**
+     * Branches a sub-problem on the edges of the cycle of its 1-tree and publishes the children
+     * in the frontier. Package-private so that the kernel benchmarks can call it directly.
+     *
+     * @param currentProblem The sub-problem to branch.
+     * @return The number of children created.
+     */
+    int generateBranches(IntermediateProblem currentProblem) throws NodeNotFoundExceptionGraph {
+        PhaseProfiler profiler = phaseProfiler;
+        LatencyHistogram[] timings = profiler.acquire();
+        try {
+            return generateBranches(currentProblem, timings);
+        } finally {
+            profiler.release(timings);
+        }
+    }
+
+    /**
+     * Branches a sub-problem, timing the phases into histograms the caller has borrowed.
+     *
+     * @param currentProblem The sub-problem to branch.
+     * @param timings The phase histograms borrowed by the calling task.
+     * @return The number of children created.
+     */
+    private int generateBranches(IntermediateProblem currentProblem, LatencyHistogram[] timings) throws NodeNotFoundExceptionGraph {
+        long phaseStart = System.nanoTime();
 
         HashMap<Integer, Integer> parentNodeMap = new HashMap<>();
         DepthFirstSearch( targetNode.getID(), parentNodeMap, currentProblem.getCurrentOneTree());
@@ -172,21 +592,25 @@ public class BranchAndBound {
             subCycle.add(currentProblem.getCurrentOneTree().getEdge(currentProblem.getCurrentOneTree().getNodeById(fromNode), currentProblem.getCurrentOneTree().getNodeById(toNode)));
             toNode = fromNode;
         }
+        phaseStart = PhaseProfiler.record(timings, SearchPhase.CycleExtraction, phaseStart);
 
         Set<Edge> essentialEdges = new HashSet<>(currentProblem.getFixedEdges());
         Set<Edge> excludedEdges = new HashSet<>(currentProblem.getExcludedEdges());
+        List<ChildEvaluation> childEvaluations = new ArrayList<>(subCycle.size());
 
         for (Edge integerIntegerEdge : subCycle) {
             if (!(currentProblem.getFixedEdges().contains(integerIntegerEdge) ||
                     currentProblem.getFixedEdges().contains(integerIntegerEdge.reverse()))
             ) {
                 excludedEdges.add(integerIntegerEdge);
-                IntermediateProblem sp = new IntermediateProblem(graph,
-                        new ArrayList<>(essentialEdges),
-                        new ArrayList<>(excludedEdges),
+                ArrayList<Edge> childFixedEdges = new ArrayList<>(essentialEdges);
+                ArrayList<Edge> childExcludedEdges = new ArrayList<>(excludedEdges);
+                childEvaluations.add(childTimings -> new IntermediateProblem(graph,
+                        childFixedEdges,
+                        childExcludedEdges,
                         targetNode,
-                        currentProblem.getIntermediateTreeLevel() + 1);
-                subTaskQueue.add(sp);
+                        currentProblem.getIntermediateTreeLevel() + 1,
+                        childTimings));
                 addedNodeCount++;
 
                 excludedEdges.remove(integerIntegerEdge);
@@ -194,10 +618,189 @@ public class BranchAndBound {
             }
         }
 
+        PhaseProfiler.record(timings, SearchPhase.ChildCreation, phaseStart);
+
+        List<IntermediateProblem> children = evaluateChildren(childEvaluations, timings);
+
+        //publish all the children with a single bulk insert
+        if (!children.isEmpty()) {
+            phaseStart = System.nanoTime();
+            pendingProblems.addAndGet(children.size());
+            subTaskQueue.addAll(children);
+            PhaseProfiler.record(timings, SearchPhase.QueueOperation, phaseStart);
+        }
+
         return addedNodeCount;
     }
 
 
+    /**
+     * The constructor of a child sub-problem, timing its phases into the given histograms.
+     */
+    private interface ChildEvaluation {
+        IntermediateProblem evaluate(LatencyHistogram[] timings) throws NodeNotFoundExceptionGraph;
+    }
+
+    /**
+     * Builds the children of a node, either one after another or concurrently on the solver's pool.
+     * The returned list keeps the order of the evaluations, so the enqueue order is deterministic.
+     * The first child is always built by the calling worker, which would otherwise sit idle.
+     *
+     * @param childEvaluations The constructors of the children, in branching order.
+     * @param timings The phase histograms borrowed by the calling worker.
+     * @return The evaluated children, in the same order.
+     */
+    private List<IntermediateProblem> evaluateChildren(List<ChildEvaluation> childEvaluations,
+                                                       LatencyHistogram[] timings) throws NodeNotFoundExceptionGraph {
+        List<IntermediateProblem> children = new ArrayList<>(childEvaluations.size());
+        if (!parallelSiblingEvaluation || childEvaluations.size() < 2) {
+            for (ChildEvaluation evaluation : childEvaluations) {
+                children.add(evaluation.evaluate(timings));
+            }
+            return children;
+        }
+
+        ExecutorService siblingPool = getSiblingPool();
+        PhaseProfiler profiler = phaseProfiler;
+        List<Future<IntermediateProblem>> pending = new ArrayList<>(childEvaluations.size() - 1);
+        for (ChildEvaluation evaluation : childEvaluations.subList(1, childEvaluations.size())) {
+            pending.add(siblingPool.submit(() -> {
+                acquireCpuPermit();
+                LatencyHistogram[] siblingTimings = profiler.acquire();
+                try {
+                    return evaluation.evaluate(siblingTimings);
+                } finally {
+                    profiler.release(siblingTimings);
+                    releaseCpuPermit();
+                }
+            }));
+        }
+        children.add(childEvaluations.get(0).evaluate(timings));
+        //give the permit back while waiting, the siblings need permits of their own
+        releaseCpuPermit();
+        try {
+            for (Future<IntermediateProblem> future : pending) {
+                children.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            pending.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating sibling sub-problems", e);
+        } catch (ExecutionException e) {
+            pending.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof NodeNotFoundExceptionGraph) {
+                throw (NodeNotFoundExceptionGraph) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            acquireCpuPermitUninterruptibly();
+        }
+        return children;
+    }
+
+    /**
+     * Checks whether the current run has been cancelled or has reached its deadline,
+     * recording the first reason observed.
+     *
+     * @return True if the workers must stop.
+     */
+    private boolean isStopRequested() {
+        if (stopReason.get() != null) {
+            return true;
+        }
+        Future<Solution> result = cancellableResult;
+        if (cancelRequested || (result != null && result.isCancelled())) {
+            stopReason.compareAndSet(null, Solution.TerminationReason.Cancelled);
+            return true;
+        }
+        if (hasDeadline && System.nanoTime() - deadlineNanos >= 0) {
+            stopReason.compareAndSet(null, Solution.TerminationReason.TimeLimitReached);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the lowest bound that is not closed yet: the frontier, the batches being processed
+     * and the nodes closed only thanks to the gap tolerance. The workers do not maintain it, it is
+     * computed on each call, which only takes the frontier's lock to read it.
+     *
+     * @return The global lower bound, Integer.MAX_VALUE if nothing is open.
+     */
+    int globalLowerBound() {
+        return Math.min(lowestOpenBound(), lowestToleranceClosedBound.get());
+    }
+
+    /**
+     * Returns the lowest bound among the pending sub-problems, queued or being processed, computed
+     * when asked instead of on every queue operation. The batches the workers hold are read first,
+     * then the frontier: a node taken in between is missed, so the computation is retried whenever
+     * the queue's taken count moved. After a few failed attempts the last exact value is returned,
+     * it stays a lower bound since children never have a lower bound than their parent.
+     *
+     * @return The lowest open bound, Integer.MAX_VALUE if nothing is pending.
+     */
+    private int lowestOpenBound() {
+        FrontierQueue<IntermediateProblem> queue = subTaskQueue;
+        for (int attempt = 0; attempt < OPEN_BOUND_ATTEMPTS; attempt++) {
+            long taken = queue.getTakenCount();
+            //the worker that took a node publishes its bound right away, without blocking
+            while (publishedTakes.get() < taken && queue == subTaskQueue) {
+                Thread.onSpinWait();
+            }
+            int lowest = Integer.MAX_VALUE;
+            for (ComputeTask worker : runningWorkers) {
+                lowest = Math.min(lowest, worker.heldBound);
+            }
+            lowest = Math.min(lowest, lowestQueuedBound(queue));
+            if (queue.getTakenCount() == taken) {
+                lastLowestOpenBound.accumulateAndGet(lowest, Math::max);
+                return lowest;
+            }
+        }
+        return lastLowestOpenBound.get();
+    }
+
+    /**
+     * Returns the lowest bound in the frontier: the head of the best-first queue, which it reads
+     * under its lock, or the minimum of a snapshot of the LIFO queue.
+     */
+    private int lowestQueuedBound(FrontierQueue<IntermediateProblem> queue) {
+        if (queue instanceof BestFirstBlockingQueue) {
+            IntermediateProblem head = queue.peek();
+            return head == null ? Integer.MAX_VALUE : head.getBound();
+        }
+        int lowest = Integer.MAX_VALUE;
+        for (IntermediateProblem problem : queue) {
+            lowest = Math.min(lowest, problem.getBound());
+        }
+        return lowest;
+    }
+
+    private void acquireCpuPermit() throws InterruptedException {
+        if (cpuPermits != null) cpuPermits.acquire();
+    }
+
+    private void acquireCpuPermitUninterruptibly() {
+        if (cpuPermits != null) cpuPermits.acquireUninterruptibly();
+    }
+
+    private void releaseCpuPermit() {
+        if (cpuPermits != null) cpuPermits.release();
+    }
+
+    /**
+     * Returns the pool used for sibling evaluation, recreating it if a previous run shut it down.
+     *
+     * @return The solver's pool.
+     */
+    private synchronized ExecutorService getSiblingPool() {
+        if (executorService == null || executorService.isShutdown()) {
+            executorService = executionMode.newExecutor(threadNumber);
+        }
+        return executorService;
+    }
+
     /**
      * Finds cycle edges in the graph based on the parent node map and the active problem's one-tree.
      * This method is used to identify the edges that form a cycle, which is crucial for generating new sub-problems.
@@ -242,6 +845,7 @@ public class BranchAndBound {
                 new ArrayList<>(excludedEdges),
                 targetNode,
                 activeProblem.getIntermediateTreeLevel() + 1);
+        pendingProblems.incrementAndGet();
         subTaskQueue.add(newIntermediateProblem);
     }
 
@@ -255,6 +859,14 @@ public class BranchAndBound {
         private final AtomicInteger level;
         private final AtomicBoolean completed;
         private final Solution optimalSolution;
+        private final int minWorkerCount;
+        private final int maxWorkerCount;
+        //listener of the run, read once when the worker starts
+        private SearchListener listener;
+        private int lowestDequeuedBound = Integer.MAX_VALUE;
+        private int highestDequeuedBound = Integer.MIN_VALUE;
+        //lowest bound of the batch this worker holds, Integer.MAX_VALUE between batches
+        private volatile int heldBound = Integer.MAX_VALUE;
 
         private final BlockingQueue<IntermediateProblem> intermediateProblemQueue;
 
@@ -266,75 +878,332 @@ public class BranchAndBound {
          * @param optimalSolution The current minimum TSP result found.
          * @param intermediateProblemQueue A queue of sub-problems to be processed.
          * @param executorService The executor service used for submitting new tasks.
+         * @param minWorkerCount The number of workers that never retire.
+         * @param maxWorkerCount The maximum number of concurrent workers.
          */
 
         public ComputeTask(AtomicInteger level, AtomicBoolean completed,
-                           Solution optimalSolution, BlockingQueue<IntermediateProblem> intermediateProblemQueue, ExecutorService executorService) {
+                           Solution optimalSolution, BlockingQueue<IntermediateProblem> intermediateProblemQueue, ExecutorService executorService,
+                           int minWorkerCount, int maxWorkerCount) {
             this.level = level;
             this.completed = completed;
             this.optimalSolution = optimalSolution;
             this.intermediateProblemQueue = intermediateProblemQueue;
+            this.minWorkerCount = Math.max(1, minWorkerCount);
+            this.maxWorkerCount = Math.max(this.minWorkerCount, maxWorkerCount);
         }
 
         @Override
         public Void call() {
+            listener = searchListener;
+            PhaseProfiler profiler = phaseProfiler;
+            List<IntermediateProblem> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            long aliveSince = System.nanoTime();
+            boolean retired = false;
+            runningWorkers.add(this);
             try {
                 while (!completed.get()) {
+                    checkGapTolerance();
+                    if (isStopRequested()) {
+                        completed.set(true);
+                        break;
+                    }
+                    long waitSince = listener != null ? System.nanoTime() : 0;
+                    QueueWaitEvent waitEvent = QUEUE_WAIT_EVENT.isEnabled() ? new QueueWaitEvent() : null;
+                    if (waitEvent != null) waitEvent.begin();
                     IntermediateProblem activeTask = intermediateProblemQueue.poll(100, TimeUnit.MILLISECONDS);
+                    if (activeTask != null) {
+                        heldBound = activeTask.getBound();
+                        publishedTakes.incrementAndGet();
+                    }
+                    if (waitEvent != null) {
+                        waitEvent.end();
+                        if (waitEvent.shouldCommit()) {
+                            waitEvent.gotWork = activeTask != null;
+                            waitEvent.openProblems = pendingProblems.get();
+                            waitEvent.commit();
+                        }
+                    }
 
                     if (activeTask == null) {
-                        if (intermediateProblemQueue.isEmpty()) {
+                        if (listener != null) {
+                            listener.onWorkerIdle(System.nanoTime() - waitSince);
+                        }
+                        //the frontier is exhausted only when no other worker is still expanding a node
+                        if (pendingProblems.get() == 0) {
                             completed.set(true);
                             shutdownExecutorService();
+                        } else if (tryRetire()) {
+                            retired = true;
+                            break;
                         }
                         continue;
                     }
-                    if(lowestBound > activeTask.getBound()){
-                        lowestBound = activeTask.getBound();
-                    }
-                    if(highestBound < activeTask.getBound()){
-                        highestBound = activeTask.getBound();
-                    }
-
-                    //print the bounds only if change is detected
 
-                    /*if(System.currentTimeMillis() % 10000 == 0){
-                        System.out.println("Lowest bound: " + lowestBound + " Highest bound: " + highestBound);
-                        System.out.println(optimalSolution.generateStatistics());
-                    }*/
-
-
-                    if (activeTask.isValidSolution()) {
-                        if (activeTask.hasHamiltonianCycle()) {
-                            if (optimalSolution.getValueOfCost() > activeTask.getBound()) {
-                                optimalSolution.identifiedSolution(activeTask.getCurrentOneTree(),
-                                        activeTask.getBound());
-                                optimalSolution.addOptimalClosedNodes(1);
-                                //System.out.println("New optimal solution found: " + optimalSolution.getValueOfCost());
+                    //drain the rest of the batch only once allowed to run, so waiting does not hide work
+                    acquireCpuPermit();
+                    long busySince = System.nanoTime();
+                    //borrowed per batch, so that the live metrics see the batches already processed
+                    LatencyHistogram[] phaseTimings = profiler.acquire();
+                    try {
+                        batch.add(activeTask);
+                        long drainStart = System.nanoTime();
+                        int drained = intermediateProblemQueue.drainTo(batch, adaptiveBatchSize() - 1);
+                        if (drained > 0) {
+                            //the batch is drained in queue order, its lowest bound may be anywhere in a LIFO batch
+                            heldBound = lowestBound(batch);
+                            publishedTakes.addAndGet(drained);
+                        }
+                        PhaseProfiler.record(phaseTimings, SearchPhase.QueueOperation, drainStart);
+                        for (int i = 0; i < batch.size(); i++) {
+                            if (isStopRequested()) {
+                                //leave the unprocessed part of the batch in the frontier, it bounds the gap
+                                intermediateProblemQueue.addAll(batch.subList(i, batch.size()));
+                                completed.set(true);
+                                break;
                             }
-                        } else if (activeTask.getBound() < optimalSolution.getValueOfCost()) {
-                            //executorService.submit(new BranchTask(activeTask));
-                            int newProblemCount = BranchAndBound.this.generateBranches(activeTask);
-                            optimalSolution.incrementNodes(newProblemCount);
-                            optimalSolution.addMidwayNodes(1);
-                        } else {
-                            optimalSolution.addBoundClosedNode(1);
+                            processIntermediateProblem(batch.get(i), phaseTimings);
+                            pendingProblems.decrementAndGet();
                         }
-                    } else {
-                        optimalSolution.addInfeasibleClosedNodes(1);
+                    } finally {
+                        //the children, or the unprocessed nodes, are in the frontier by now
+                        heldBound = Integer.MAX_VALUE;
+                        profiler.release(phaseTimings);
+                        releaseCpuPermit();
+                        workerBusyNanos.add(System.nanoTime() - busySince);
                     }
+                    batch.clear();
+                    trySpawnWorker();
                 }
             } catch (InterruptedException e) {
                 if (!completed.get()) {
                     e.printStackTrace();
                 }
             } catch (NodeNotFoundExceptionGraph e) {
+                abortRun();
                 throw new RuntimeException(e);
+            } catch (RuntimeException | Error e) {
+                abortRun();
+                throw e;
+            } finally {
+                heldBound = Integer.MAX_VALUE;
+                runningWorkers.remove(this);
+                if (listener != null) {
+                    listener.onWorkerExit();
+                }
+                if (!retired) {
+                    activeWorkers.decrementAndGet();
+                }
+                workerAliveNanos.add(System.nanoTime() - aliveSince);
             }
             return null;
         }
 
+        private int lowestBound(List<IntermediateProblem> problems) {
+            int lowest = Integer.MAX_VALUE;
+            for (IntermediateProblem problem : problems) {
+                lowest = Math.min(lowest, problem.getBound());
+            }
+            return lowest;
+        }
+
+        /**
+         * Stops the other workers after this one failed: the sub-problems it held are never
+         * completed, so they would otherwise wait for the frontier to drain forever.
+         */
+        private void abortRun() {
+            stopReason.compareAndSet(null, Solution.TerminationReason.Cancelled);
+            completed.set(true);
+        }
+
+        /**
+         * Stops the search if a gap tolerance is set and the global lower bound is close enough
+         * to the incumbent. Only one worker per interval recomputes the bound.
+         */
+        private void checkGapTolerance() {
+            int incumbent = optimalSolution.getValueOfCost();
+            if (!hasGapTolerance() || incumbent == Integer.MAX_VALUE) {
+                return;
+            }
+            long now = System.nanoTime();
+            long last = lastGapCheckNanos.get();
+            if (now - last < GAP_CHECK_INTERVAL_NANOS || !lastGapCheckNanos.compareAndSet(last, now)) {
+                return;
+            }
+            if (incumbent - globalLowerBound() <= gapTolerance(incumbent)) {
+                stopReason.compareAndSet(null, Solution.TerminationReason.GapToleranceReached);
+            }
+        }
+
+        /**
+         * Starts one more worker if the frontier holds more work than the running workers can
+         * take in a round and the pool is below its upper bound.
+         */
+        private void trySpawnWorker() {
+            int running = activeWorkers.get();
+            if (running >= maxWorkerCount
+                    || intermediateProblemQueue.size() <= running * WORKER_SPAWN_THRESHOLD) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(running, running + 1)) {
+                peakWorkers.accumulateAndGet(running + 1, Math::max);
+                try {
+                    workerFutures.add(workerPool.submit(new ComputeTask(level, completed, optimalSolution,
+                            intermediateProblemQueue, executorService, minWorkerCount, maxWorkerCount)));
+                } catch (RejectedExecutionException e) {
+                    activeWorkers.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * Retires this worker if more than the minimum number of workers are running.
+         *
+         * @return True if the worker must stop.
+         */
+        private boolean tryRetire() {
+            int running = activeWorkers.get();
+            return running > minWorkerCount && activeWorkers.compareAndSet(running, running - 1);
+        }
+
+        /**
+         * Computes how many sub-problems to take from the queue at once.
+         * A shallow frontier is shared one node at a time so that every worker gets something
+         * (and BestFS keeps its ordering), a deep one is drained in larger batches to amortise locking.
+         *
+         * @return The batch size, between 1 and MAX_BATCH_SIZE.
+         */
+        private int adaptiveBatchSize() {
+            int share = intermediateProblemQueue.size() / (2 * Math.max(1, activeWorkers.get()));
+            return Math.max(1, Math.min(MAX_BATCH_SIZE, share));
+        }
+
+        /**
+         * Closes or branches a single sub-problem taken from the queue.
+         *
+         * @param activeTask The sub-problem to process.
+         * @param phaseTimings The phase histograms borrowed by this worker.
+         */
+        private void processIntermediateProblem(IntermediateProblem activeTask, LatencyHistogram[] phaseTimings) throws NodeNotFoundExceptionGraph {
+            if (listener != null) {
+                notifyDequeue(activeTask);
+            }
+
+            if (activeTask.isValidSolution()) {
+                if (activeTask.hasHamiltonianCycle()) {
+                    synchronized (optimalSolution) {
+                        int previousCost = optimalSolution.getValueOfCost();
+                        if (previousCost > activeTask.getBound()) {
+                            optimalSolution.identifiedSolution(activeTask.getCurrentOneTree(),
+                                    activeTask.getBound());
+                            optimalSolution.addOptimalClosedNodes(1);
+                            publishIncumbent(activeTask.getBound(), activeTask.getCurrentOneTree());
+                            notifyIncumbent(activeTask, previousCost);
+                            //System.out.println("New optimal solution found: " + optimalSolution.getValueOfCost());
+                        } else {
+                            notifyPrune(activeTask, SearchListener.PruneReason.Bound);
+                        }
+                    }
+                } else if (activeTask.getBound() + gapTolerance(optimalSolution.getValueOfCost()) < optimalSolution.getValueOfCost()) {
+                    //executorService.submit(new BranchTask(activeTask));
+                    BranchEvent event = BRANCH_EVENT.isEnabled() ? new BranchEvent() : null;
+                    if (event != null) event.begin();
+                    int newProblemCount = BranchAndBound.this.generateBranches(activeTask, phaseTimings);
+                    if (event != null) {
+                        event.end();
+                    }
+                    optimalSolution.incrementNodes(newProblemCount);
+                    optimalSolution.addMidwayNodes(1);
+                    if (event != null && event.shouldCommit()) {
+                        event.bound = activeTask.getBound();
+                        event.depth = activeTask.getIntermediateTreeLevel();
+                        event.children = newProblemCount;
+                        event.commit();
+                    }
+                    if (listener != null) {
+                        listener.onBranch(activeTask, newProblemCount);
+                    }
+                } else {
+                    boolean withinTolerance = activeTask.getBound() < optimalSolution.getValueOfCost();
+                    if (withinTolerance) {
+                        //closed only thanks to the gap tolerance
+                        lowestToleranceClosedBound.accumulateAndGet(activeTask.getBound(), Math::min);
+                    }
+                    optimalSolution.addBoundClosedNode(1);
+                    notifyPrune(activeTask, withinTolerance
+                            ? SearchListener.PruneReason.GapTolerance : SearchListener.PruneReason.Bound);
+                }
+            } else {
+                optimalSolution.addInfeasibleClosedNodes(1);
+                notifyPrune(activeTask, SearchListener.PruneReason.Infeasible);
+            }
+        }
+
+        /**
+         * Reports a sub-problem closed without branching to the listener and, while recording, to JFR.
+         *
+         * @param activeTask The closed sub-problem.
+         * @param reason Why it was closed.
+         */
+        private void notifyPrune(IntermediateProblem activeTask, SearchListener.PruneReason reason) {
+            if (listener != null) {
+                listener.onPrune(activeTask, reason);
+            }
+            if (!PRUNE_EVENT.isEnabled()) {
+                return;
+            }
+            PruneEvent event = new PruneEvent();
+            if (event.shouldCommit()) {
+                event.reason = reason.name();
+                event.bound = activeTask.getBound();
+                event.incumbent = optimalSolution.getValueOfCost();
+                event.depth = activeTask.getIntermediateTreeLevel();
+                event.commit();
+            }
+        }
+
+        /**
+         * Reports a new incumbent to the listener and, while recording, to JFR.
+         *
+         * @param activeTask The sub-problem whose 1-tree is the new tour.
+         * @param previousCost The cost of the previous incumbent.
+         */
+        private void notifyIncumbent(IntermediateProblem activeTask, int previousCost) {
+            if (listener != null) {
+                listener.onIncumbent(activeTask.getBound(), activeTask.getCurrentOneTree());
+            }
+            if (!INCUMBENT_EVENT.isEnabled()) {
+                return;
+            }
+            IncumbentEvent event = new IncumbentEvent();
+            if (event.shouldCommit()) {
+                event.previousCost = previousCost;
+                event.cost = activeTask.getBound();
+                event.depth = activeTask.getIntermediateTreeLevel();
+                event.commit();
+            }
+        }
+
+        /**
+         * Reports a dequeued sub-problem, and the bound range of this worker if it widened.
+         *
+         * @param activeTask The sub-problem taken from the frontier.
+         */
+        private void notifyDequeue(IntermediateProblem activeTask) {
+            listener.onDequeue(activeTask);
+            int bound = activeTask.getBound();
+            if (bound < lowestDequeuedBound || bound > highestDequeuedBound) {
+                lowestDequeuedBound = Math.min(lowestDequeuedBound, bound);
+                highestDequeuedBound = Math.max(highestDequeuedBound, bound);
+                listener.onBoundUpdate(lowestDequeuedBound, highestDequeuedBound);
+            }
+        }
+
         private void shutdownExecutorService() {
+            ExecutorService executorService = BranchAndBound.this.executorService;
+            if (executorService == null) {
+                return;
+            }
             executorService.shutdown();
             try {
                 if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
@@ -398,18 +1267,56 @@ public class BranchAndBound {
      *
      * @param minSolution The Solution object to store the minimum result found during computation.
      * @param threadPool The ExecutorService to manage parallel execution.
+     * @param initialWorkers The number of workers started with the run.
+     * @param workerLimit The maximum number of concurrent workers.
+     * @param exitOnWorkerError If true a failing worker terminates the JVM, otherwise a CompletionException is thrown.
      * @return The Solution containing the intermediateProblem to the TSP problem.
      */
-    private Solution solveTSPWithParallelComputing(Solution minSolution, ExecutorService threadPool) {
+    private Solution solveTSPWithParallelComputing(Solution minSolution, ExecutorService threadPool, int initialWorkers, int workerLimit,
+                                                   boolean exitOnWorkerError) {
         long startTime = System.currentTimeMillis();
+        runStartMillis = startTime;
         AtomicInteger currentLevel = new AtomicInteger(0);
         AtomicBoolean computationCompleted = new AtomicBoolean(false);
-        ArrayList<Future<Void>> intermediateProblems = submitIntermediateProblemTasks(currentLevel, computationCompleted, minSolution, threadPool);
-
-        awaitCompletion(intermediateProblems);
+        workerPool = threadPool;
+        workerFutures.clear();
+        lowestToleranceClosedBound.set(Integer.MAX_VALUE);
+        lastGapCheckNanos.set(System.nanoTime());
+        activeWorkers.set(initialWorkers);
+        peakWorkers.set(initialWorkers);
+        workerBusyNanos.reset();
+        workerAliveNanos.reset();
+        metrics.register(minSolution, graph.getNodes().size());
+        Throwable failure;
+        int remainingBound;
+        try {
+            workerFutures.addAll(submitIntermediateProblemTasks(currentLevel, computationCompleted, minSolution, threadPool, initialWorkers, workerLimit));
+            failure = awaitCompletion(workerFutures);
+            remainingBound = Math.min(lowestOpenBound(), lowestToleranceClosedBound.get());
+        } finally {
+            metrics.unregister();
+        }
         minSolution.setExecutionTime(System.currentTimeMillis() - startTime);
         shutdownAndAwaitTermination(threadPool, 5);
-        minSolution.finalizeSolutionState();
+        if (failure != null) {
+            if (exitOnWorkerError) {
+                System.exit(2);
+            }
+            throw new CompletionException(failure);
+        }
+        minSolution.setWorkerStatistics(getPeakWorkerCount(), getWorkerUtilisation());
+        minSolution.setPhaseLatencies(phaseProfiler.merge());
+        Solution.TerminationReason reason = stopReason.get();
+        if (reason == null && remainingBound < minSolution.getValueOfCost()) {
+            //the frontier was exhausted, but some nodes were closed within the tolerance
+            reason = Solution.TerminationReason.GapToleranceReached;
+        }
+        if (reason == null || remainingBound >= minSolution.getValueOfCost()) {
+            //nothing left open can beat the incumbent: optimality is proven
+            minSolution.finalizeSolutionState();
+        } else {
+            minSolution.finalizeSolutionState(reason, remainingBound);
+        }
         return minSolution;
     }
 
@@ -420,33 +1327,45 @@ public class BranchAndBound {
      * @param computationCompleted A flag indicating whether the computation is completed.
      * @param minSolution The current minimum TSP result found.
      * @param threadPool The ExecutorService to use for executing tasks.
+     * @param workerCount The number of workers to submit.
+     * @param workerLimit The maximum number of concurrent workers.
      * @return A list of Future objects representing the tasks submitted for execution.
      */
-    private ArrayList<Future<Void>> submitIntermediateProblemTasks(AtomicInteger currentLevel, AtomicBoolean computationCompleted, Solution minSolution, ExecutorService threadPool) {
-        ArrayList<Future<Void>> intermediateProblems = new ArrayList<>(threadNumber);
-        for (int i = 0; i < /*threadNumber*/ 1; i++) {
-            intermediateProblems.add(threadPool.submit(new ComputeTask(currentLevel, computationCompleted, minSolution, subTaskQueue, executorService)));
+    private ArrayList<Future<Void>> submitIntermediateProblemTasks(AtomicInteger currentLevel, AtomicBoolean computationCompleted, Solution minSolution, ExecutorService threadPool, int workerCount, int workerLimit) {
+        ArrayList<Future<Void>> intermediateProblems = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            intermediateProblems.add(threadPool.submit(new ComputeTask(currentLevel, computationCompleted, minSolution, subTaskQueue, executorService, workerCount, workerLimit)));
         }
         return intermediateProblems;
     }
 
     /**
      * Waits for all submitted sub-problem tasks to complete.
-     * If an InterruptedException or ExecutionException occurs, it cancels all tasks and may terminate the program.
+     * If an InterruptedException or ExecutionException occurs, it cancels all tasks and reports the first failure.
+     * Workers started during the run are added to the queue before the worker that started them
+     * completes, so draining the queue until it is empty waits for all of them.
      *
-     * @param intermediateProblems The list of Future objects representing the tasks submitted for execution.
+     * @param intermediateProblems The queue of Future objects representing the tasks submitted for execution.
+     * @return The first failure, or null if every task completed normally.
      */
-    private void awaitCompletion(ArrayList<Future<Void>> intermediateProblems) {
-        for (Future<Void> intermediateProblemsSolver : intermediateProblems) {
+    private Throwable awaitCompletion(Queue<Future<Void>> intermediateProblems) {
+        Throwable failure = null;
+        Future<Void> intermediateProblemsSolver;
+        while ((intermediateProblemsSolver = intermediateProblems.poll()) != null) {
             try {
                 intermediateProblemsSolver.get();
-            } catch (InterruptedException | ExecutionException e) {
-                intermediateProblems.forEach(future -> future.cancel(true));
-                if (IfErrorThenTerminate) {
-                    System.exit(2);
+            } catch (InterruptedException | ExecutionException | CancellationException e) {
+                if (failure == null && !(e instanceof CancellationException)) {
+                    failure = (e instanceof ExecutionException) ? e.getCause() : e;
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    stopReason.compareAndSet(null, Solution.TerminationReason.Cancelled);
+                    intermediateProblems.forEach(future -> future.cancel(true));
                 }
             }
         }
+        return failure;
     }
 
     /**
@@ -478,9 +1397,19 @@ public class BranchAndBound {
      * This includes reinitializing the sub-problem queue and suggesting garbage collection.
      */
     private void resetResourcesForNextRun() {
-        subTaskQueue = new PriorityBlockingQueue<>();
+        clearFrontier();
         System.gc();
     }
+
+    /**
+     * Replaces the frontier with an empty one and forgets the pending sub-problems.
+     */
+    void clearFrontier() {
+        subTaskQueue = createFrontierQueue();
+        pendingProblems.set(0);
+        publishedTakes.set(0);
+        lastLowestOpenBound.set(Integer.MAX_VALUE);
+    }
 }
 
 
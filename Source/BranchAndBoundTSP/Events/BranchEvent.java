@@ -0,0 +1,27 @@
+package Source.BranchAndBoundTSP.Events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Branching of a sub-problem on the edges of the cycle of its 1-tree.
+ */
+@Name("Source.BranchAndBoundTSP.Branch")
+@Label("Branch")
+@Category({"Branch and Bound", "Search"})
+@Description("A sub-problem was split into children")
+@StackTrace(false)
+public class BranchEvent extends Event {
+    @Label("Bound")
+    public int bound;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Children")
+    public int children;
+}
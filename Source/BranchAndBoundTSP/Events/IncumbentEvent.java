@@ -0,0 +1,27 @@
+package Source.BranchAndBoundTSP.Events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A better tour was found.
+ */
+@Name("Source.BranchAndBoundTSP.Incumbent")
+@Label("Incumbent Update")
+@Category({"Branch and Bound", "Search"})
+@Description("A tour improving the incumbent was found")
+@StackTrace(false)
+public class IncumbentEvent extends Event {
+    @Label("Previous Cost")
+    public int previousCost;
+
+    @Label("Cost")
+    public int cost;
+
+    @Label("Depth")
+    public int depth;
+}
@@ -0,0 +1,34 @@
+package Source.BranchAndBoundTSP.Events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Construction of the 1-tree of a sub-problem: graph copy, MST of the remaining nodes and the
+ * two edges of the special node.
+ */
+@Name("Source.BranchAndBoundTSP.OneTree")
+@Label("1-Tree Construction")
+@Category({"Branch and Bound", "Bounding"})
+@Description("Computation of the 1-tree relaxation of a sub-problem")
+@StackTrace(false)
+public class OneTreeEvent extends Event {
+    @Label("Nodes")
+    public int nodes;
+
+    @Label("Fixed Edges")
+    public int fixedEdges;
+
+    @Label("Excluded Edges")
+    public int excludedEdges;
+
+    @Label("Bound")
+    public int bound;
+
+    @Label("Hamiltonian Cycle")
+    public boolean hamiltonian;
+}
@@ -0,0 +1,30 @@
+package Source.BranchAndBoundTSP.Events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A sub-problem closed without branching.
+ */
+@Name("Source.BranchAndBoundTSP.Prune")
+@Label("Prune")
+@Category({"Branch and Bound", "Search"})
+@Description("A sub-problem was closed without branching")
+@StackTrace(false)
+public class PruneEvent extends Event {
+    @Label("Reason")
+    public String reason;
+
+    @Label("Bound")
+    public int bound;
+
+    @Label("Incumbent")
+    public int incumbent;
+
+    @Label("Depth")
+    public int depth;
+}
@@ -0,0 +1,25 @@
+package Source.BranchAndBoundTSP.Events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A worker waiting on the frontier, including the wait for its lock.
+ */
+@Name("Source.BranchAndBoundTSP.QueueWait")
+@Label("Frontier Wait")
+@Category({"Branch and Bound", "Workers"})
+@Description("A worker polled the frontier for a sub-problem")
+@StackTrace(false)
+public class QueueWaitEvent extends Event {
+    @Label("Got Work")
+    public boolean gotWork;
+
+    @Label("Open Sub-problems")
+    @Description("Sub-problems queued or being processed when the wait ended")
+    public int openProblems;
+}
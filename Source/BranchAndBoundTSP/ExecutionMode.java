@@ -0,0 +1,88 @@
+package Source.BranchAndBoundTSP;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Kind of threads the solver runs its workers on.
+ */
+public enum ExecutionMode {
+    /**
+     * A pool of platform threads, one per worker; threads left idle by retired workers time out.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * One virtual thread per task. Compute is capped by a JVM-wide semaphore with one permit
+     * per available processor, so workers waiting on the queue do not hold a carrier thread
+     * and many concurrent solves share the CPUs instead of each owning a pool.
+     * Virtual threads need a Java 21+ runtime; on an older one the tasks run on a pool of platform
+     * threads bounded like PLATFORM_THREADS, still capped by the semaphore, and a warning is printed once.
+     */
+    VIRTUAL_THREADS;
+
+    //shared by every solver (and batch solve) running in VIRTUAL_THREADS mode
+    private static final Semaphore CPU_PERMITS = new Semaphore(Runtime.getRuntime().availableProcessors());
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 30;
+    //Executors.newVirtualThreadPerTaskExecutor, looked up reflectively so that the sources still
+    //compile on Java 17; null on a runtime without virtual threads
+    private static final Method VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+    private static final AtomicBoolean FALLBACK_REPORTED = new AtomicBoolean();
+
+    /**
+     * Creates an executor for this mode.
+     *
+     * @param threads The number of threads of the pool, ignored for virtual threads when the runtime has them.
+     * @return A new ExecutorService.
+     */
+    public ExecutorService newExecutor(int threads) {
+        if (this == VIRTUAL_THREADS) {
+            if (VIRTUAL_THREAD_EXECUTOR != null) {
+                try {
+                    return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not create a virtual thread executor", e);
+                }
+            }
+            if (FALLBACK_REPORTED.compareAndSet(false, true)) {
+                System.err.println("Virtual threads require a Java 21 or later runtime, VIRTUAL_THREADS runs on platform threads");
+            }
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Tells whether VIRTUAL_THREADS runs on virtual threads on this runtime.
+     *
+     * @return True on Java 21 or later, false if it falls back to platform threads.
+     */
+    public static boolean virtualThreadsAvailable() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    private static Method findVirtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the semaphore capping compute parallelism, or null if this mode is not capped.
+     *
+     * @return The JVM-wide CPU semaphore for virtual threads, null for platform threads.
+     */
+    Semaphore cpuPermits() {
+        return this == VIRTUAL_THREADS ? CPU_PERMITS : null;
+    }
+}
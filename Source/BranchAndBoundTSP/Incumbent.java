@@ -0,0 +1,55 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Edge;
+import Source.Datastructures.Graph.Graph;
+
+import java.util.ArrayList;
+
+/**
+ * An improving tour found during the search, as published to incumbent subscribers.
+ * Publishing only hands over the tour graph; the path is traced when a subscriber asks for it.
+ */
+public class Incumbent {
+    private final int cost;
+    private final Graph tour;
+    private final long elapsedMillis;
+
+    /**
+     * Constructs an Incumbent.
+     *
+     * @param cost The cost of the tour.
+     * @param tour The graph of the tour, a Hamiltonian cycle.
+     * @param elapsedMillis The time since the start of the search.
+     */
+    public Incumbent(int cost, Graph tour, long elapsedMillis) {
+        this.cost = cost;
+        this.tour = tour;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public Graph getTour() {
+        return tour;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Traces the tour as an ordered list of edges.
+     *
+     * @return The edges of the tour, in visiting order.
+     */
+    public ArrayList<Edge> getPath() {
+        return Solution.tracePath(tour);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("New best tour after %d ms, cost: %d. Path:\n%s\n", elapsedMillis, cost, getPath());
+    }
+}
@@ -5,9 +5,12 @@ import java.util.List;
 import java.util.Comparator;
 import java.util.ArrayList;
 
+import Source.BranchAndBoundTSP.Events.OneTreeEvent;
+import jdk.jfr.EventType;
 import Source.Datastructures.Graph.Exceptions.NodeNotFoundExceptionGraph;
 import Source.Datastructures.Pair;
 import Source.Datastructures.Graph.*;
+import Source.Datastructures.MST.Prim;
 
 import static Source.Datastructures.MST.Kruskal.MSTFor1Tree;
 
@@ -25,6 +28,8 @@ public class IntermediateProblem implements Comparable<IntermediateProblem>{
     private Integer treeDepthLevel;
     private GraphNode targetNode;
     private Graph currentOneTree;
+    //the event is only created while a recording has it enabled
+    private static final EventType ONE_TREE_EVENT = EventType.getEventType(OneTreeEvent.class);
 
     /**
      * Constructs a IntermediateProblem instance with the specified initial graph and target node.
@@ -51,15 +56,50 @@ public class IntermediateProblem implements Comparable<IntermediateProblem>{
                                ArrayList<Edge> excludedEdges,
                                GraphNode candidateNode,
                                Integer subProblemTreeLevel) throws NodeNotFoundExceptionGraph {
+        this(initialGraph, fixedEdges, excludedEdges, candidateNode, subProblemTreeLevel, null);
+    }
+
+    /**
+     * Constructs a IntermediateProblem instance, timing the phases of the 1-tree computation.
+     *
+     * @param initialGraph The initial graph representing the TSP.
+     * @param fixedEdges The list of fixed edges.
+     * @param excludedEdges The list of excluded edges.
+     * @param candidateNode The candidate node for the TSP.
+     * @param subProblemTreeLevel The depth level of the sub-problem tree.
+     * @param timings The phase histograms borrowed by the calling task, null to skip timing.
+     */
+    IntermediateProblem(Graph initialGraph,
+                        ArrayList<Edge> fixedEdges,
+                        ArrayList<Edge> excludedEdges,
+                        GraphNode candidateNode,
+                        Integer subProblemTreeLevel,
+                        LatencyHistogram[] timings) throws NodeNotFoundExceptionGraph {
         this.fixedEdges = fixedEdges;
         this.excludedEdges = excludedEdges;
         this.initialGraph = initialGraph;
         this.targetNode = candidateNode;
         this.treeDepthLevel = subProblemTreeLevel;
 
-        this.currentOneTree = constructOneTree();
+        OneTreeEvent event = ONE_TREE_EVENT.isEnabled() ? new OneTreeEvent() : null;
+        if (event != null) event.begin();
+        this.currentOneTree = constructOneTree(timings);
+        long phaseStart = timings == null ? 0 : System.nanoTime();
         this.bound = evaluateOneTreeCost(); //Okay
+        if (timings != null) phaseStart = PhaseProfiler.record(timings, SearchPhase.CostEvaluation, phaseStart);
         this.hasHamiltonianCycle = detectHamiltonianCycle(); //Okay
+        if (timings != null) PhaseProfiler.record(timings, SearchPhase.HamiltonicityCheck, phaseStart);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.nodes = initialGraph.getNodes().size();
+                event.fixedEdges = fixedEdges.size();
+                event.excludedEdges = excludedEdges.size();
+                event.bound = bound;
+                event.hamiltonian = hasHamiltonianCycle;
+                event.commit();
+            }
+        }
         this.validSolution = currentOneTree.getNodes().size() == initialGraph.getNodes().size() &&
                 currentOneTree.getEdges().size()/2 == initialGraph.getNodes().size();
     }
@@ -68,18 +108,21 @@ public class IntermediateProblem implements Comparable<IntermediateProblem>{
     /**
      * Constructs a one-tree for the current solution.
      *
+     * @param timings The phase histograms borrowed by the calling task, null to skip timing.
      * @return The constructed one-tree graph.
      */
-    private Graph constructOneTree() throws NodeNotFoundExceptionGraph {
+    private Graph constructOneTree(LatencyHistogram[] timings) throws NodeNotFoundExceptionGraph {
         ArrayList<Edge> adjustedMandatoryEdges = cloneAndFilterMandatoryEdges();
 
-        Graph minimumSpanningTree = computeMST(adjustedMandatoryEdges);
+        Graph minimumSpanningTree = computeMST(adjustedMandatoryEdges, timings);
+        long phaseStart = timings == null ? 0 : System.nanoTime();
         List<Edge> nodeMandatoryEdges = getNodeIncidentEdges(fixedEdges, targetNode.getID());
         List<Edge> nodeForbiddenEdges = getNodeIncidentEdges(excludedEdges, targetNode.getID());
 
         if (minimumSpanningTree.getNodes().size() == initialGraph.getNodes().size()) {
             addLeastExpensiveEdges(minimumSpanningTree, nodeMandatoryEdges, nodeForbiddenEdges);
         }
+        if (timings != null) PhaseProfiler.record(timings, SearchPhase.SpecialNodeEdges, phaseStart);
 
         return minimumSpanningTree;
     }
@@ -104,13 +147,24 @@ public class IntermediateProblem implements Comparable<IntermediateProblem>{
      * Computes the minimum spanning tree (MST) for the given mandatory edges.
      *
      * @param mandatoryEdges The list of mandatory edges.
+     * @param timings The phase histograms borrowed by the calling task, null to skip timing.
      * @return The computed MST graph.
      */
-    private Graph computeMST(ArrayList<Edge> mandatoryEdges) throws NodeNotFoundExceptionGraph {
+    private Graph computeMST(ArrayList<Edge> mandatoryEdges, LatencyHistogram[] timings) throws NodeNotFoundExceptionGraph {
+        long phaseStart = timings == null ? 0 : System.nanoTime();
+        if (initialGraph instanceof CompleteGraph) {
+            //weights read from the instance: no copy of the graph and no list of its edges
+            Graph oneTree = Prim.MSTFor1Tree((CompleteGraph) initialGraph, targetNode, mandatoryEdges, excludedEdges);
+            oneTree.addNode(targetNode);
+            if (timings != null) PhaseProfiler.record(timings, SearchPhase.MinimumSpanningTree, phaseStart);
+            return oneTree;
+        }
         Graph thisGraph = initialGraph.clone();
         thisGraph.deleteNode(targetNode);
+        if (timings != null) phaseStart = PhaseProfiler.record(timings, SearchPhase.GraphCopy, phaseStart);
         thisGraph = MSTFor1Tree(thisGraph, EdgeWeightComparator.getInstance(), mandatoryEdges, excludedEdges);
         thisGraph.addNode(targetNode);
+        if (timings != null) PhaseProfiler.record(timings, SearchPhase.MinimumSpanningTree, phaseStart);
         return thisGraph;
     }
 
@@ -182,7 +236,7 @@ public class IntermediateProblem implements Comparable<IntermediateProblem>{
 
 
     /**
-     * Finds the least expensive edge from the given list of edges, excluding the specified edge.
+     * Finds the least expensive edge incident to the target node, excluding the specified edge.
      *
      * @param edges The list of edges.
      * @param forbiddenEdges The list of forbidden edges.
@@ -192,12 +246,11 @@ public class IntermediateProblem implements Comparable<IntermediateProblem>{
 
     private Edge findLeastExpensiveEdgeExcluding(List<Edge> edges, List<Edge> forbiddenEdges, Edge excludedEdge) {
         Edge leastExpensiveEdge = null;
-        for (Edge edge : initialGraph.getEdges()) {
+        for (Edge edge : initialGraph.getEdges(targetNode)) {
             boolean isForbidden = forbiddenEdges.contains(edge) || forbiddenEdges.contains(edge.reverse());
             boolean isExcluded = excludedEdge != null && (excludedEdge.equals(edge) || excludedEdge.reverse().equals(edge));
-            boolean isIncident = edge.isIncidentFor(targetNode.getID());
 
-            if (!isForbidden && !isExcluded && isIncident) {
+            if (!isForbidden && !isExcluded) {
                 if (leastExpensiveEdge == null || leastExpensiveEdge.getWeight() > edge.getWeight()) {
                     leastExpensiveEdge = edge;
                 }
@@ -0,0 +1,107 @@
+package Source.BranchAndBoundTSP;
+
+/**
+ * A log-linear histogram of durations in nanoseconds, in the style of HdrHistogram.
+ * Values below 2^SUB_BUCKET_BITS are counted exactly; above, every power of two is split into
+ * 2^SUB_BUCKET_BITS buckets, so a reported percentile is within about 3% of the recorded value.
+ * Recording never allocates. An instance is not thread-safe: it must not be read (e.g. merged) while
+ * another thread writes it, see {@link PhaseProfiler} for how the solver hands them out.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    //values from 2^MAX_EXPONENT ns (about 9 minutes) up are counted in the last bucket
+    private static final int MAX_EXPONENT = 39;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds, negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        totalNanos += value;
+        if (value > maxNanos) {
+            maxNanos = value;
+        }
+    }
+
+    /**
+     * Adds all the values recorded by another histogram to this one.
+     *
+     * @param other The histogram to merge, left unchanged.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getMeanNanos() {
+        return totalCount == 0 ? 0 : (double) totalNanos / totalCount;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values fall.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The value in nanoseconds, 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) Math.min((value >>> shift) - SUB_BUCKET_COUNT, SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
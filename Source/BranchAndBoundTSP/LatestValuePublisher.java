@@ -0,0 +1,173 @@
+package Source.BranchAndBoundTSP;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A publisher that keeps only the latest item for every subscriber.
+ * Offering never blocks and never fails: the new item replaces the one a slow subscriber has not
+ * received yet, so every subscriber eventually sees the most recent item. Items are delivered on
+ * the common pool, or on a new thread per delivery when the pool has a single thread.
+ *
+ * @param <T> The type of the items.
+ */
+final class LatestValuePublisher<T> implements Flow.Publisher<T>, AutoCloseable {
+
+    private final Executor executor = ForkJoinPool.getCommonPoolParallelism() > 1
+            ? ForkJoinPool.commonPool() : task -> new Thread(task).start();
+    private final List<LatestSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed = false;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        LatestSubscription subscription = new LatestSubscription(subscriber);
+        if (!closed) {
+            subscriptions.add(subscription);
+        }
+        //a subscriber arriving after close() is completed right after onSubscribe
+        subscription.signal();
+    }
+
+    boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Hands an item to every subscriber, replacing the item each one has not received yet.
+     *
+     * @param item The item to publish.
+     */
+    void offer(T item) {
+        for (LatestSubscription subscription : subscriptions) {
+            subscription.latest.set(item);
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Registers a callback invoked with every item it receives.
+     *
+     * @param consumer The callback.
+     * @return A future completed when the publisher is closed, or exceptionally if the callback throws.
+     */
+    CompletableFuture<Void> consume(Consumer<? super T> consumer) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        subscribe(new Flow.Subscriber<T>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                done.whenComplete((ignored, failure) -> subscription.cancel());
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                try {
+                    consumer.accept(item);
+                } catch (Throwable t) {
+                    done.completeExceptionally(t);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Completes every subscriber once it has received the latest item.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (LatestSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    private final class LatestSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicReference<T> latest = new AtomicReference<>();
+        private final AtomicLong demand = new AtomicLong();
+        //number of signals since the last drain started, only one drain runs at a time
+        private final AtomicInteger signals = new AtomicInteger();
+        private boolean subscribed = false;
+        private volatile boolean cancelled = false;
+
+        private LatestSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (signals.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                deliver();
+                if (closed && !cancelled && latest.get() == null) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+                missed = signals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            while (!cancelled && demand.get() > 0) {
+                T item = latest.getAndSet(null);
+                if (item == null) {
+                    return;
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(item);
+                } catch (Throwable t) {
+                    cancel();
+                    subscriber.onError(t);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package Source.BranchAndBoundTSP;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+
+/**
+ * Collects the latency of every {@link SearchPhase} during one search.
+ * A task borrows a set of histograms with {@link #acquire()}, records into it without any
+ * synchronization and gives it back with {@link #release(LatencyHistogram[])}; returned sets are
+ * handed to the next task, so there are never more sets than tasks timing phases at the same time.
+ * {@link #merge()} sums the sets that are not borrowed, under the same lock.
+ */
+public class PhaseProfiler {
+
+    //the sets not borrowed and the number of sets created, both guarded by this
+    private final Deque<LatencyHistogram[]> idleHistograms = new ArrayDeque<>();
+    private int histogramSetCount = 0;
+
+    /**
+     * Borrows a set of histograms, indexed by SearchPhase ordinal, for the calling task only.
+     *
+     * @return A set of histograms that no other task writes until it is released.
+     */
+    synchronized LatencyHistogram[] acquire() {
+        LatencyHistogram[] histograms = idleHistograms.pollFirst();
+        if (histograms == null) {
+            histograms = new LatencyHistogram[SearchPhase.values().length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+            histogramSetCount++;
+        }
+        return histograms;
+    }
+
+    /**
+     * Gives back a set of histograms, its values become visible to {@link #merge()}.
+     *
+     * @param histograms A set returned by {@link #acquire()}, not used afterwards by the caller.
+     */
+    synchronized void release(LatencyHistogram[] histograms) {
+        idleHistograms.addFirst(histograms);
+    }
+
+    /**
+     * Records a phase that started at the given time and ends now.
+     *
+     * @param histograms The histograms borrowed by the calling task.
+     * @param phase The phase that ended.
+     * @param startNanos The System.nanoTime() at which the phase started.
+     * @return The current System.nanoTime(), the start of the next phase.
+     */
+    static long record(LatencyHistogram[] histograms, SearchPhase phase, long startNanos) {
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    /**
+     * Sums the histograms that are not borrowed. While the search runs the result misses the
+     * batches being processed; once it has ended every set has been released.
+     *
+     * @return A new histogram per phase.
+     */
+    public synchronized EnumMap<SearchPhase, LatencyHistogram> merge() {
+        EnumMap<SearchPhase, LatencyHistogram> merged = new EnumMap<>(SearchPhase.class);
+        for (SearchPhase phase : SearchPhase.values()) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (LatencyHistogram[] histograms : idleHistograms) {
+                histogram.add(histograms[phase.ordinal()]);
+            }
+            merged.put(phase, histogram);
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the number of sets of histograms created so far, at most the number of tasks that
+     * timed phases at the same time.
+     *
+     * @return The number of sets.
+     */
+    synchronized int getHistogramSetCount() {
+        return histogramSetCount;
+    }
+}
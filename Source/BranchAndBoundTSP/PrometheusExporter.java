@@ -0,0 +1,171 @@
+package Source.BranchAndBoundTSP;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Serves the metrics of one or more solvers in the Prometheus text format on {@code /metrics}.
+ * Every solver is labelled with the name of its instance (e.g. Tsp.getName()). The values are read
+ * from each solver's {@link SolverMetrics} when the endpoint is scraped, so an idle endpoint costs nothing.
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HttpServer server;
+    private final Map<String, SolverMetrics> solvers = new ConcurrentHashMap<>();
+
+    /**
+     * Starts an exporter on the loopback interface.
+     *
+     * @param port The port to listen on, 0 for any free port.
+     * @throws IOException If the server cannot be started.
+     */
+    public PrometheusExporter(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Starts an exporter on the given address.
+     *
+     * @param address The address to listen on.
+     * @throws IOException If the server cannot be started.
+     */
+    public PrometheusExporter(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/metrics", this::handle);
+        server.start();
+    }
+
+    /**
+     * Adds a solver to the exported ones, replacing any solver with the same instance name.
+     *
+     * @param instanceName The value of the instance label.
+     * @param branchAndBound The solver to export.
+     * @return This exporter.
+     */
+    public PrometheusExporter register(String instanceName, BranchAndBound branchAndBound) {
+        solvers.put(instanceName, branchAndBound.getMetrics());
+        return this;
+    }
+
+    /**
+     * Removes a solver from the exported ones.
+     *
+     * @param instanceName The instance label of the solver.
+     */
+    public void unregister(String instanceName) {
+        solvers.remove(instanceName);
+    }
+
+    /**
+     * Returns the port the exporter listens on, useful when it was started on port 0.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Renders the current value of every metric.
+     *
+     * @return The metrics in the Prometheus text exposition format.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        metric(out, "bb_running", "gauge", "1 while a search is running.", m -> m.isRunning() ? 1 : 0);
+        metric(out, "bb_subproblems_created_total", "counter", "Sub-problems created by the current or last search.",
+                SolverMetrics::getNodesCreated);
+        metric(out, "bb_subproblems_branched_total", "counter", "Sub-problems branched.", SolverMetrics::getBranchedNodes);
+
+        header(out, "bb_subproblems_closed_total", "counter", "Sub-problems closed without branching, by reason.");
+        solvers.forEach((instance, m) -> {
+            sample(out, "bb_subproblems_closed_total", instance, "reason=\"bound\"", m.getBoundClosedNodes());
+            sample(out, "bb_subproblems_closed_total", instance, "reason=\"infeasible\"", m.getInfeasibleClosedNodes());
+            sample(out, "bb_subproblems_closed_total", instance, "reason=\"optimal\"", m.getOptimalClosedNodes());
+        });
+
+        metric(out, "bb_frontier_depth", "gauge", "Open sub-problems, queued or being processed.", SolverMetrics::getFrontierSize);
+        metric(out, "bb_frontier_heap_estimate_bytes", "gauge",
+                "Rough estimate of the heap held by the open sub-problems, assuming 200 bytes per graph node.",
+                SolverMetrics::getFrontierHeapEstimateBytes);
+        metric(out, "bb_active_workers", "gauge", "Workers currently running.", SolverMetrics::getActiveWorkers);
+        metric(out, "bb_incumbent_cost", "gauge", "Cost of the best tour found, NaN if none.",
+                m -> m.getIncumbent() < 0 ? Double.NaN : m.getIncumbent());
+        metric(out, "bb_best_bound", "gauge", "Lowest bound still open, NaN if unknown.",
+                m -> m.getBestBound() < 0 ? Double.NaN : m.getBestBound());
+        metric(out, "bb_optimality_gap", "gauge", "Relative gap between incumbent and best bound.", SolverMetrics::getGap);
+
+        header(out, "bb_phase_latency_seconds", "summary", "Latency of the phases of sub-problem processing.");
+        solvers.forEach((instance, m) -> m.getPhaseLatencies().forEach((phase, histogram) -> {
+            String phaseLabel = "phase=\"" + phase.name() + "\"";
+            for (double quantile : QUANTILES) {
+                sample(out, "bb_phase_latency_seconds", instance, phaseLabel + ",quantile=\"" + quantile + "\"",
+                        histogram.getValueAtPercentile(quantile * 100) / 1e9);
+            }
+            sample(out, "bb_phase_latency_seconds_sum", instance, phaseLabel, histogram.getTotalNanos() / 1e9);
+            sample(out, "bb_phase_latency_seconds_count", instance, phaseLabel, histogram.getCount());
+        }));
+        return out.toString();
+    }
+
+    private void metric(StringBuilder out, String name, String type, String help, ToDoubleFunction<SolverMetrics> value) {
+        header(out, name, type, help);
+        solvers.forEach((instance, m) -> sample(out, name, instance, null, value.applyAsDouble(m)));
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String instance, String extraLabels, double value) {
+        out.append(name).append("{instance=\"").append(escape(instance)).append('"');
+        if (extraLabels != null) {
+            out.append(',').append(extraLabels);
+        }
+        out.append("} ").append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,144 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+
+/**
+ * Receives the events of a Branch and Bound search.
+ * All the methods are invoked synchronously on the worker thread that produced the event,
+ * concurrently from several workers, so implementations must be thread-safe and cheap.
+ * When no listener is attached the solver does not build or dispatch any event.
+ */
+public interface SearchListener {
+
+    /**
+     * Why a sub-problem was closed without branching.
+     */
+    enum PruneReason {
+        /**
+         * Its bound is not lower than the incumbent (includes non-improving tours).
+         */
+        Bound,
+        /**
+         * Its bound is lower than the incumbent, but within the gap tolerance.
+         */
+        GapTolerance,
+        /**
+         * Its 1-tree does not span the graph.
+         */
+        Infeasible
+    }
+
+    /**
+     * A worker took a sub-problem from the frontier.
+     *
+     * @param problem The sub-problem about to be processed.
+     */
+    default void onDequeue(IntermediateProblem problem) {
+    }
+
+    /**
+     * A sub-problem has been branched.
+     *
+     * @param problem The branched sub-problem.
+     * @param children The number of children added to the frontier.
+     */
+    default void onBranch(IntermediateProblem problem, int children) {
+    }
+
+    /**
+     * A sub-problem has been closed without branching.
+     *
+     * @param problem The closed sub-problem.
+     * @param reason Why it was closed.
+     */
+    default void onPrune(IntermediateProblem problem, PruneReason reason) {
+    }
+
+    /**
+     * A better tour has been found.
+     *
+     * @param cost The cost of the tour.
+     * @param tour The graph of the tour.
+     */
+    default void onIncumbent(int cost, Graph tour) {
+    }
+
+    /**
+     * The range of bounds dequeued by the calling worker has widened.
+     *
+     * @param lowestBound The lowest bound dequeued by this worker so far.
+     * @param highestBound The highest bound dequeued by this worker so far.
+     */
+    default void onBoundUpdate(int lowestBound, int highestBound) {
+    }
+
+    /**
+     * A worker waited on the frontier without getting any work.
+     *
+     * @param idleNanos How long it waited.
+     */
+    default void onWorkerIdle(long idleNanos) {
+    }
+
+    /**
+     * A worker is stopping: the calling thread produces no more events for this search,
+     * unless it later runs another worker.
+     */
+    default void onWorkerExit() {
+    }
+
+    /**
+     * Returns a listener forwarding every event to both listeners, in order.
+     *
+     * @param first The first listener, may be null.
+     * @param second The second listener, may be null.
+     * @return The combined listener, or the non-null one if the other is null.
+     */
+    static SearchListener compose(SearchListener first, SearchListener second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return new SearchListener() {
+            @Override
+            public void onDequeue(IntermediateProblem problem) {
+                first.onDequeue(problem);
+                second.onDequeue(problem);
+            }
+
+            @Override
+            public void onBranch(IntermediateProblem problem, int children) {
+                first.onBranch(problem, children);
+                second.onBranch(problem, children);
+            }
+
+            @Override
+            public void onPrune(IntermediateProblem problem, PruneReason reason) {
+                first.onPrune(problem, reason);
+                second.onPrune(problem, reason);
+            }
+
+            @Override
+            public void onIncumbent(int cost, Graph tour) {
+                first.onIncumbent(cost, tour);
+                second.onIncumbent(cost, tour);
+            }
+
+            @Override
+            public void onBoundUpdate(int lowestBound, int highestBound) {
+                first.onBoundUpdate(lowestBound, highestBound);
+                second.onBoundUpdate(lowestBound, highestBound);
+            }
+
+            @Override
+            public void onWorkerIdle(long idleNanos) {
+                first.onWorkerIdle(idleNanos);
+                second.onWorkerIdle(idleNanos);
+            }
+
+            @Override
+            public void onWorkerExit() {
+                first.onWorkerExit();
+                second.onWorkerExit();
+            }
+        };
+    }
+}
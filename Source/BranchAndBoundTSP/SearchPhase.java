@@ -0,0 +1,49 @@
+package Source.BranchAndBoundTSP;
+
+/**
+ * The timed phases of handling a sub-problem, see {@link PhaseProfiler}.
+ */
+public enum SearchPhase {
+    /**
+     * Copy of the graph the 1-tree is built on.
+     */
+    GraphCopy("graph copy"),
+    /**
+     * Kruskal's MST over the nodes other than the special one.
+     */
+    MinimumSpanningTree("MST"),
+    /**
+     * Choice of the two edges of the special node.
+     */
+    SpecialNodeEdges("special-node edges"),
+    /**
+     * Sum of the 1-tree weights.
+     */
+    CostEvaluation("cost evaluation"),
+    /**
+     * Check of whether the 1-tree is a tour.
+     */
+    HamiltonicityCheck("Hamiltonicity check"),
+    /**
+     * Search of the cycle through the special node, the edges to branch on.
+     */
+    CycleExtraction("cycle extraction"),
+    /**
+     * Building the edge sets of the children (their 1-trees are timed by the phases above).
+     */
+    ChildCreation("child creation"),
+    /**
+     * Non-blocking frontier operations: draining a batch and publishing the children.
+     */
+    QueueOperation("queue operations");
+
+    private final String description;
+
+    SearchPhase(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,184 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A SearchListener counting the events of a search.
+ * Every worker thread updates its own plain counters, so recording an event never contends with
+ * other workers. When a worker stops, its counters are added to a shared total and forgotten, so
+ * threads that come and go do not accumulate. {@link #snapshot()} sums the total and the counters
+ * of the running workers; a snapshot taken while the search runs may lag slightly behind the
+ * workers, one taken after the run is exact.
+ */
+public class SearchStatisticsListener implements SearchListener {
+
+    private final Set<ThreadCounters> runningCounters = ConcurrentHashMap.newKeySet();
+    //counters of the workers that have stopped, guarded by this
+    private final ThreadCounters stoppedCounters = new ThreadCounters();
+    private final ThreadLocal<ThreadCounters> counters = ThreadLocal.withInitial(() -> {
+        ThreadCounters threadCounters = new ThreadCounters();
+        runningCounters.add(threadCounters);
+        return threadCounters;
+    });
+
+    @Override
+    public void onDequeue(IntermediateProblem problem) {
+        counters.get().dequeued++;
+    }
+
+    @Override
+    public void onBranch(IntermediateProblem problem, int children) {
+        ThreadCounters threadCounters = counters.get();
+        threadCounters.branched++;
+        threadCounters.children += children;
+    }
+
+    @Override
+    public void onPrune(IntermediateProblem problem, PruneReason reason) {
+        counters.get().pruned[reason.ordinal()]++;
+    }
+
+    @Override
+    public void onIncumbent(int cost, Graph tour) {
+        counters.get().incumbents++;
+    }
+
+    @Override
+    public void onBoundUpdate(int lowestBound, int highestBound) {
+        ThreadCounters threadCounters = counters.get();
+        threadCounters.lowestBound = Math.min(threadCounters.lowestBound, lowestBound);
+        threadCounters.highestBound = Math.max(threadCounters.highestBound, highestBound);
+    }
+
+    @Override
+    public void onWorkerIdle(long idleNanos) {
+        ThreadCounters threadCounters = counters.get();
+        threadCounters.idleWaits++;
+        threadCounters.idleNanos += idleNanos;
+    }
+
+    @Override
+    public void onWorkerExit() {
+        ThreadCounters threadCounters = counters.get();
+        counters.remove();
+        synchronized (this) {
+            stoppedCounters.add(threadCounters);
+            runningCounters.remove(threadCounters);
+        }
+    }
+
+    /**
+     * Sums the counters of all the worker threads.
+     *
+     * @return The statistics recorded so far.
+     */
+    public synchronized Snapshot snapshot() {
+        ThreadCounters total = new ThreadCounters();
+        total.add(stoppedCounters);
+        for (ThreadCounters threadCounters : runningCounters) {
+            total.add(threadCounters);
+        }
+        return new Snapshot(total);
+    }
+
+    //written only by its own thread while the worker runs
+    private static class ThreadCounters {
+        private long dequeued;
+        private long branched;
+        private long children;
+        private final long[] pruned = new long[PruneReason.values().length];
+        private long incumbents;
+        private long idleWaits;
+        private long idleNanos;
+        private int lowestBound = Integer.MAX_VALUE;
+        private int highestBound = Integer.MIN_VALUE;
+
+        private void add(ThreadCounters other) {
+            dequeued += other.dequeued;
+            branched += other.branched;
+            children += other.children;
+            for (int i = 0; i < pruned.length; i++) {
+                pruned[i] += other.pruned[i];
+            }
+            incumbents += other.incumbents;
+            idleWaits += other.idleWaits;
+            idleNanos += other.idleNanos;
+            lowestBound = Math.min(lowestBound, other.lowestBound);
+            highestBound = Math.max(highestBound, other.highestBound);
+        }
+    }
+
+    /**
+     * The statistics of a search at a given moment.
+     */
+    public static class Snapshot {
+        private final long dequeued;
+        private final long branched;
+        private final long children;
+        private final long[] pruned;
+        private final long incumbents;
+        private final long idleWaits;
+        private final long idleNanos;
+        private final int lowestBound;
+        private final int highestBound;
+
+        private Snapshot(ThreadCounters total) {
+            this.dequeued = total.dequeued;
+            this.branched = total.branched;
+            this.children = total.children;
+            this.pruned = total.pruned.clone();
+            this.incumbents = total.incumbents;
+            this.idleWaits = total.idleWaits;
+            this.idleNanos = total.idleNanos;
+            this.lowestBound = total.lowestBound;
+            this.highestBound = total.highestBound;
+        }
+
+        public long getDequeued() {
+            return dequeued;
+        }
+
+        public long getBranched() {
+            return branched;
+        }
+
+        public long getChildren() {
+            return children;
+        }
+
+        public long getPruned(PruneReason reason) {
+            return pruned[reason.ordinal()];
+        }
+
+        public long getIncumbents() {
+            return incumbents;
+        }
+
+        public long getIdleWaits() {
+            return idleWaits;
+        }
+
+        public long getIdleNanos() {
+            return idleNanos;
+        }
+
+        public int getLowestBound() {
+            return lowestBound;
+        }
+
+        public int getHighestBound() {
+            return highestBound;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Dequeued: %d, branched: %d (%d children), pruned for bound: %d, within gap tolerance: %d, infeasible: %d, " +
+                            "incumbents: %d, idle waits: %d (%d ms), bounds: [%d, %d]",
+                    dequeued, branched, children, getPruned(PruneReason.Bound), getPruned(PruneReason.GapTolerance),
+                    getPruned(PruneReason.Infeasible), incumbents, idleWaits, idleNanos / 1_000_000, lowestBound, highestBound);
+        }
+    }
+}
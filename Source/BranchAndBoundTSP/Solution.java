@@ -3,19 +3,26 @@ import Source.Datastructures.Graph.*;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ArrayList;
 
 public class Solution {
     private Long executionTime = null;
-    private FinalState currentState = FinalState.Pending;
+    private volatile FinalState currentState = FinalState.Pending;
+    private TerminationReason terminationReason = TerminationReason.Completed;
+    private int lowerBound = Integer.MIN_VALUE;
     private Graph initGraph;
-    private int valueOfCost;
+    private volatile int valueOfCost;
     private final AtomicInteger nodeCountTotal = new AtomicInteger();
     private final AtomicInteger midwayNodeCount = new AtomicInteger();
     private final AtomicInteger unfeasibleClosedNodeCount = new AtomicInteger();
     private final AtomicInteger boundClosedNodeCount = new AtomicInteger();
     private final AtomicInteger optimalClosedNodeCount = new AtomicInteger();
+    private int peakWorkerCount = 0;
+    private double workerUtilisation = 0;
+    private EnumMap<SearchPhase, LatencyHistogram> phaseLatencies = new EnumMap<>(SearchPhase.class);
 
     /**
      * Constructs a Solution instance with the specified initial graph and cost value.
@@ -50,7 +57,6 @@ public class Solution {
         this.valueOfCost = valueOfCost;
         this.initGraph = initGraph;
         this.currentState = FinalState.Feasible;
-        System.out.println("Solution identified:" + this.toString());
     }
 
     /**
@@ -62,6 +68,7 @@ public class Solution {
         switch (this.currentState) {
             case Feasible:
                 this.currentState = FinalState.Resolved;
+                this.lowerBound = valueOfCost;
                 break;
             case Pending:
                 this.currentState = FinalState.Infeasible;
@@ -71,6 +78,21 @@ public class Solution {
         }
     }
 
+    /**
+     * Finalizes a search that stopped before the frontier was exhausted.
+     * The solution stays Feasible (or Pending if no tour was found) since optimality is not proven,
+     * and records the lowest bound still open so that the optimality gap can be reported.
+     *
+     * @param reason Why the search stopped early.
+     * @param remainingBound The lowest bound among the sub-problems left in the frontier.
+     * @throws IllegalStateException If the solution is already in a terminal state.
+     */
+    public void finalizeSolutionState(TerminationReason reason, int remainingBound) {
+        ensureNotCompleted();
+        this.terminationReason = reason;
+        this.lowerBound = Math.min(remainingBound, valueOfCost);
+    }
+
     /**
      * Retrieves the path of the solution.
      *
@@ -79,14 +101,23 @@ public class Solution {
      */
     public ArrayList<Edge> retrievePath() throws IllegalStateException {
         checkState();
+        return tracePath(initGraph);
+    }
 
+    /**
+     * Traces a Hamiltonian cycle as an ordered list of edges.
+     *
+     * @param tour The graph of the cycle.
+     * @return An ArrayList of edges representing the path.
+     */
+    static ArrayList<Edge> tracePath(Graph tour) {
         ArrayList<Edge> routeEdges = new ArrayList<>();
-        int initialNodeKey = initGraph.getNodes().get(0).getID();
+        int initialNodeKey = tour.getNodes().get(0).getID();
         int activeNodeKey = initialNodeKey;
         int priorNodeKey = activeNodeKey;
 
         do {
-            Edge followingEdge = locateNextEdge(activeNodeKey, priorNodeKey);
+            Edge followingEdge = locateNextEdge(tour, activeNodeKey, priorNodeKey);
             routeEdges.add(followingEdge);
             priorNodeKey = activeNodeKey;
             activeNodeKey = followingEdge.getV().getID();
@@ -112,19 +143,20 @@ public class Solution {
     /**
      * Locates the next edge in the path.
      *
+     * @param tour The graph of the cycle.
      * @param activeNode The current active node.
      * @param priorNode The previous node.
      * @return The next edge in the path.
      */
-    private Edge locateNextEdge(int activeNode, int priorNode) {
+    private static Edge locateNextEdge(Graph tour, int activeNode, int priorNode) {
         int edgeCounter = 0;
         Edge prospectiveEdge;
 
         do {
-            int getNode = initGraph.getNodeById(activeNode).getID();
-            GraphNode thisNode = initGraph.getNodeById(getNode);
+            int getNode = tour.getNodeById(activeNode).getID();
+            GraphNode thisNode = tour.getNodeById(getNode);
 
-            prospectiveEdge = initGraph.getEdges(thisNode).get(edgeCounter);
+            prospectiveEdge = tour.getEdges(thisNode).get(edgeCounter);
             edgeCounter++;
         } while (priorNode == prospectiveEdge.getV().getID());
 
@@ -138,6 +170,14 @@ public class Solution {
      */
     @Override
     public String toString() {
+        if (terminationReason != TerminationReason.Completed) {
+            return switch (this.currentState) {
+                case Feasible -> String.format("Search stopped (%s), best cost: %d, lower bound: %d, gap: %.2f%%. Path:\n%s\n\n",
+                        terminationReason, valueOfCost, lowerBound, getOptimalityGap() * 100, retrievePath());
+                default -> String.format("Search stopped (%s) before a solution was found, lower bound: %d.",
+                        terminationReason, lowerBound);
+            };
+        }
         return switch (this.currentState) {
             case Resolved -> String.format("Optimal solution found, cost: %d. Path:\n%s\n\n",
                     valueOfCost, retrievePath());
@@ -160,12 +200,42 @@ public class Solution {
     - %d were terminated as candidate solutions;
     - %d were pruned due to boundary limitations;
     - %d were discarded for being infeasible.
+    Up to %d workers ran concurrently, busy %.1f%% of their time.
     """,
                 this.nodeCountTotal.get(),
                 this.midwayNodeCount.get(),
                 this.optimalClosedNodeCount.get(),
                 this.boundClosedNodeCount.get(),
-                this.unfeasibleClosedNodeCount.get());
+                this.unfeasibleClosedNodeCount.get(),
+                this.peakWorkerCount,
+                this.workerUtilisation * 100) + generatePhaseStatistics();
+    }
+
+    /**
+     * Generates a table of the latency percentiles of every timed phase.
+     *
+     * @return The table, empty if no phase was timed.
+     */
+    private String generatePhaseStatistics() {
+        StringBuilder table = new StringBuilder();
+        for (Map.Entry<SearchPhase, LatencyHistogram> entry : phaseLatencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            if (table.length() == 0) {
+                table.append(String.format("Phase latencies (microseconds):%n- %-20s %10s %9s %9s %9s %9s %9s%n",
+                        "phase", "count", "p50", "p90", "p99", "p99.9", "max"));
+            }
+            table.append(String.format("- %-20s %10d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey().getDescription(), histogram.getCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxNanos() / 1000.0));
+        }
+        return table.toString();
     }
 
     /**
@@ -174,7 +244,7 @@ public class Solution {
      * @param j The number of graphNodes to add to the midway graphNodes count.
      * @throws IllegalStateException If the solution is already finalized.
      */
-    public synchronized void addMidwayNodes(int j) {
+    public void addMidwayNodes(int j) {
         ensureNotCompleted();
 
         this.midwayNodeCount.addAndGet(j);
@@ -186,7 +256,7 @@ public class Solution {
      * @param j The number of graphNodes to add to the closed graphNodes for bound count.
      * @throws IllegalStateException If the solution is already finalized.
      */
-    public synchronized void addBoundClosedNode(int j) {
+    public void addBoundClosedNode(int j) {
         ensureNotCompleted();
 
         this.boundClosedNodeCount.addAndGet(j);
@@ -198,7 +268,7 @@ public class Solution {
      * @param j The number of graphNodes to add to the closed graphNodes for infeasibility count.
      * @throws IllegalStateException If the solution is already finalized.
      */
-    public synchronized void addInfeasibleClosedNodes(int j) {
+    public void addInfeasibleClosedNodes(int j) {
         ensureNotCompleted();
 
         this.unfeasibleClosedNodeCount.addAndGet(j);
@@ -210,7 +280,7 @@ public class Solution {
      * @param updateCount The number of graphNodes to add to the total count.
      * @throws IllegalStateException If the solution is already finalized.
      */
-    public synchronized void incrementNodes(int updateCount) {
+    public void incrementNodes(int updateCount) {
         ensureNotCompleted();
 
         this.nodeCountTotal.addAndGet(updateCount);
@@ -222,7 +292,7 @@ public class Solution {
      * @param j The number of graphNodes to add to the closed graphNodes for the optimal solution count.
      * @throws IllegalStateException If the solution is already finalized.
      */
-    public synchronized void addOptimalClosedNodes(int j) {
+    public void addOptimalClosedNodes(int j) {
         ensureNotCompleted();
 
         this.optimalClosedNodeCount.addAndGet(j);
@@ -269,6 +339,36 @@ public class Solution {
         this.executionTime = l;
     }
 
+    /**
+     * Records how the worker pool behaved during the search.
+     *
+     * @param peakWorkerCount The highest number of concurrent workers.
+     * @param workerUtilisation The fraction of worker time spent processing sub-problems.
+     */
+    public void setWorkerStatistics(int peakWorkerCount, double workerUtilisation) {
+        this.peakWorkerCount = peakWorkerCount;
+        this.workerUtilisation = workerUtilisation;
+    }
+
+    /**
+     * Records the merged latency histograms of the search phases.
+     *
+     * @param phaseLatencies One histogram per phase.
+     */
+    public void setPhaseLatencies(EnumMap<SearchPhase, LatencyHistogram> phaseLatencies) {
+        this.phaseLatencies = phaseLatencies;
+    }
+
+    /**
+     * Returns the latency histogram of a search phase.
+     *
+     * @param phase The phase.
+     * @return Its histogram, empty if the phase was not timed.
+     */
+    public LatencyHistogram getPhaseLatency(SearchPhase phase) {
+        return phaseLatencies.getOrDefault(phase, new LatencyHistogram());
+    }
+
     /**
      * Enum representing the final state of the solution.
      */
@@ -276,6 +376,36 @@ public class Solution {
         Resolved, Feasible, Infeasible, Pending
     }
 
+    /**
+     * Enum representing why the search ended.
+     */
+    public enum TerminationReason {
+        Completed, TimeLimitReached, Cancelled, GapToleranceReached
+    }
+
+    /**
+     * Returns the relative optimality gap of the solution, (cost - lower bound) / cost.
+     *
+     * @return 0 for a proven optimum, the gap for a search stopped early, NaN if no tour was found.
+     */
+    public double getOptimalityGap() {
+        if (currentState == FinalState.Resolved) {
+            return 0;
+        }
+        if (currentState != FinalState.Feasible || lowerBound == Integer.MIN_VALUE) {
+            return Double.NaN;
+        }
+        return (double) (valueOfCost - lowerBound) / valueOfCost;
+    }
+
+    public TerminationReason getTerminationReason() {
+        return terminationReason;
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
 
     public Graph getInitGraph() {
         return initGraph;
@@ -308,4 +438,12 @@ public class Solution {
     public int getMidwayNodeCount() {
         return midwayNodeCount.get();
     }
+
+    public int getPeakWorkerCount() {
+        return peakWorkerCount;
+    }
+
+    public double getWorkerUtilisation() {
+        return workerUtilisation;
+    }
 }
\ No newline at end of file
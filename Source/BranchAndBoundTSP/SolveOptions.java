@@ -0,0 +1,66 @@
+package Source.BranchAndBoundTSP;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Options of an asynchronous solve, see {@link BranchAndBound#solve(SolveOptions)}.
+ */
+public class SolveOptions {
+    private int numberOfThreads = 0;
+    private boolean excludeUnidirectionalNodes = false;
+    private Duration timeLimit = null;
+
+    /**
+     * Sets the number of worker threads; 0 (the default) uses the thread number of the solver.
+     *
+     * @param numberOfThreads The number of threads, at least 0.
+     * @return This options object.
+     */
+    public SolveOptions withThreads(int numberOfThreads) {
+        if (numberOfThreads < 0) {
+            throw new IllegalArgumentException("Threads must not be negative");
+        }
+        this.numberOfThreads = numberOfThreads;
+        return this;
+    }
+
+    /**
+     * Sets whether nodes with less than two edges are removed instead of making the problem unsolvable.
+     *
+     * @param excludeUnidirectionalNodes If true, one-way nodes will be ignored.
+     * @return This options object.
+     */
+    public SolveOptions withExcludeUnidirectionalNodes(boolean excludeUnidirectionalNodes) {
+        this.excludeUnidirectionalNodes = excludeUnidirectionalNodes;
+        return this;
+    }
+
+    /**
+     * Sets the wall-clock budget of the search, measured from the call to solve.
+     * When it runs out the search stops and the solution reports the best tour found so far,
+     * the best bound still open and the resulting optimality gap.
+     *
+     * @param timeLimit The time limit, null for no limit.
+     * @return This options object.
+     */
+    public SolveOptions withTimeLimit(Duration timeLimit) {
+        if (timeLimit != null && timeLimit.isNegative()) {
+            throw new IllegalArgumentException("Time limit must not be negative");
+        }
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public boolean isExcludeUnidirectionalNodes() {
+        return excludeUnidirectionalNodes;
+    }
+
+    public Optional<Duration> getTimeLimit() {
+        return Optional.ofNullable(timeLimit);
+    }
+}
@@ -0,0 +1,178 @@
+package Source.BranchAndBoundTSP;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMX view of a BranchAndBound instance.
+ * Every attribute is read from counters the workers already maintain (atomics and volatiles),
+ * so polling never blocks a worker.
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+
+    private static final AtomicInteger INSTANCE_IDS = new AtomicInteger();
+    //assumed, not measured, footprint of an open sub-problem per graph node: its 1-tree adjacency
+    //plus fixed/excluded edges
+    private static final long ESTIMATED_BYTES_PER_NODE = 200;
+
+    private final BranchAndBound branchAndBound;
+    private final ObjectName objectName;
+    //solution of the running search, or of the last one once it has ended
+    private volatile Solution solution = null;
+    private volatile boolean running = false;
+    private volatile long graphNodeCount = 0;
+
+    SolverMetrics(BranchAndBound branchAndBound) {
+        this.branchAndBound = branchAndBound;
+        try {
+            this.objectName = new ObjectName("Source.BranchAndBoundTSP:type=BranchAndBound,id=" + INSTANCE_IDS.incrementAndGet());
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Registers the MBean for the search that is about to start.
+     * A failure to register is reported but does not prevent the search.
+     *
+     * @param solution The solution the search will update.
+     * @param graphNodeCount The number of nodes of the graph being solved.
+     */
+    void register(Solution solution, int graphNodeCount) {
+        this.solution = solution;
+        this.running = true;
+        this.graphNodeCount = graphNodeCount;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register solver metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters the MBean once the search has ended.
+     */
+    void unregister() {
+        this.running = false;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not unregister solver metrics: " + e.getMessage());
+        }
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return isRunning() ? System.currentTimeMillis() - branchAndBound.getRunStartMillis() : 0;
+    }
+
+    @Override
+    public double getNodesPerSecond() {
+        Solution current = solution;
+        long elapsed = getElapsedMillis();
+        if (current == null || elapsed <= 0) {
+            return 0;
+        }
+        return (current.retrieveCompletedNodes() + current.getMidwayNodeCount()) * 1000.0 / elapsed;
+    }
+
+    @Override
+    public int getNodesCreated() {
+        Solution current = solution;
+        return current == null ? 0 : current.getNodeCountTotal();
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return isRunning() ? branchAndBound.getOpenProblemCount() : 0;
+    }
+
+    @Override
+    public long getFrontierHeapEstimateBytes() {
+        return getFrontierSize() * graphNodeCount * ESTIMATED_BYTES_PER_NODE;
+    }
+
+    @Override
+    public int getActiveWorkers() {
+        return isRunning() ? branchAndBound.getActiveWorkerCount() : 0;
+    }
+
+    @Override
+    public int getIncumbent() {
+        Solution current = solution;
+        return current == null || current.getValueOfCost() == Integer.MAX_VALUE ? -1 : current.getValueOfCost();
+    }
+
+    @Override
+    public int getBestBound() {
+        if (!isRunning()) {
+            //once the search has ended the solution holds the certified bound
+            Solution current = solution;
+            return current == null || current.getLowerBound() == Integer.MIN_VALUE ? -1 : current.getLowerBound();
+        }
+        int bound = branchAndBound.globalLowerBound();
+        return bound == Integer.MAX_VALUE ? -1 : bound;
+    }
+
+    @Override
+    public double getGap() {
+        int incumbent = getIncumbent();
+        int bound = getBestBound();
+        if (incumbent <= 0 || bound < 0) {
+            return Double.NaN;
+        }
+        return Math.max(0, (double) (incumbent - bound) / incumbent);
+    }
+
+    @Override
+    public int getBranchedNodes() {
+        Solution current = solution;
+        return current == null ? 0 : current.getMidwayNodeCount();
+    }
+
+    @Override
+    public int getBoundClosedNodes() {
+        Solution current = solution;
+        return current == null ? 0 : current.getBoundClosedNodeCount();
+    }
+
+    @Override
+    public int getInfeasibleClosedNodes() {
+        Solution current = solution;
+        return current == null ? 0 : current.getUnfeasibleClosedNodeCount();
+    }
+
+    /**
+     * Merges the phase latencies of the running (or last) search. Not a JMX attribute.
+     *
+     * @return One histogram per phase.
+     */
+    public EnumMap<SearchPhase, LatencyHistogram> getPhaseLatencies() {
+        return branchAndBound.getPhaseProfiler().merge();
+    }
+
+    @Override
+    public int getOptimalClosedNodes() {
+        Solution current = solution;
+        return current == null ? 0 : current.getOptimalClosedNodeCount();
+    }
+}
@@ -0,0 +1,80 @@
+package Source.BranchAndBoundTSP;
+
+/**
+ * Live metrics of a running Branch and Bound search, as exposed over JMX.
+ * Each BranchAndBound instance registers one under
+ * {@code Source.BranchAndBoundTSP:type=BranchAndBound,id=<n>} while a search is running.
+ */
+public interface SolverMetricsMBean {
+
+    /**
+     * @return True while a search is running.
+     */
+    boolean isRunning();
+
+    /**
+     * @return The milliseconds since the start of the current search.
+     */
+    long getElapsedMillis();
+
+    /**
+     * @return The sub-problems processed per second, averaged since the start of the search.
+     */
+    double getNodesPerSecond();
+
+    /**
+     * @return The sub-problems created so far by the running (or last) search.
+     */
+    int getNodesCreated();
+
+    /**
+     * @return The open sub-problems, waiting in the frontier or being processed.
+     */
+    int getFrontierSize();
+
+    /**
+     * @return A rough estimate of the heap held by the open sub-problems, in bytes: the frontier size
+     * times the graph size times an assumed 200 bytes per graph node, not a measurement.
+     */
+    long getFrontierHeapEstimateBytes();
+
+    /**
+     * @return The number of workers currently running.
+     */
+    int getActiveWorkers();
+
+    /**
+     * @return The cost of the best tour found so far, -1 if none.
+     */
+    int getIncumbent();
+
+    /**
+     * @return The lowest bound among the open sub-problems, or the final lower bound once the search has ended; -1 if none is known.
+     */
+    int getBestBound();
+
+    /**
+     * @return The relative gap between the incumbent and the best bound, NaN if either is unknown.
+     */
+    double getGap();
+
+    /**
+     * @return The sub-problems that have been branched.
+     */
+    int getBranchedNodes();
+
+    /**
+     * @return The sub-problems closed because their bound could not beat the incumbent.
+     */
+    int getBoundClosedNodes();
+
+    /**
+     * @return The sub-problems closed because their 1-tree does not span the graph.
+     */
+    int getInfeasibleClosedNodes();
+
+    /**
+     * @return The sub-problems closed as an improving tour.
+     */
+    int getOptimalClosedNodes();
+}
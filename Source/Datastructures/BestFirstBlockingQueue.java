@@ -0,0 +1,200 @@
+package Source.Datastructures;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Unbounded priority blocking queue (natural ordering) guarded by a single lock.
+//Unlike PriorityBlockingQueue, addAll inserts the whole collection under one lock acquisition
+public class BestFirstBlockingQueue<E extends Comparable<? super E>> extends AbstractQueue<E> implements FrontierQueue<E> {
+    private final PriorityQueue<E> heap;
+    private final ReentrantLock lock = new ReentrantLock();
+    //number of elements, written under the lock so that size() can read it without locking
+    private volatile int count = 0;
+    //elements ever taken out, written under the lock
+    private volatile long taken = 0;
+    private final Condition notEmpty = lock.newCondition();
+
+    public BestFirstBlockingQueue() {
+        this.heap = new PriorityQueue<>();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        lock.lock();
+        try {
+            heap.offer(e);
+            count = heap.size();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == this) throw new IllegalArgumentException();
+        if (c.isEmpty()) return false;
+        lock.lock();
+        try {
+            for (E e : c) {
+                if (e == null) throw new NullPointerException();
+                heap.offer(e);
+            }
+            notEmpty.signalAll();
+        } finally {
+            //also after a null element, the ones before it were added
+            count = heap.size();
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        lock.lock();
+        try {
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E peek() {
+        lock.lock();
+        try {
+            return heap.peek();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //weakly consistent: iterates over a snapshot, in no particular order
+    @Override
+    public Iterator<E> iterator() {
+        lock.lock();
+        try {
+            return new ArrayList<>(heap).iterator();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    // BlockingQueue methods
+    @Override
+    public void put(E e) {
+        offer(e);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) {
+        return offer(e);
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                notEmpty.await();
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                if (nanos <= 0L) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getTakenCount() {
+        return taken;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        lock.lock();
+        try {
+            boolean removed = heap.remove(o);
+            count = heap.size();
+            if (removed) taken++;
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        lock.lock();
+        try {
+            return heap.contains(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //called with the lock held
+    private E pollLocked() {
+        E e = heap.poll();
+        count = heap.size();
+        if (e != null) taken++;
+        return e;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    //drains in priority order, best element first
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) throw new IllegalArgumentException();
+        if (maxElements <= 0) return 0;
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && !heap.isEmpty()) {
+                c.add(heap.poll());
+                drained++;
+            }
+            count = heap.size();
+            taken += drained;
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
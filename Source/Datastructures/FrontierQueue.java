@@ -0,0 +1,16 @@
+package Source.Datastructures;
+
+import java.util.concurrent.BlockingQueue;
+
+//Blocking queue of the solver frontier. It counts the elements ever taken out of it, so that a
+//reader scanning the queue can tell whether an element left it in the meantime
+public interface FrontierQueue<E> extends BlockingQueue<E> {
+
+    /**
+     * Returns the number of elements taken out by poll, take, drainTo or remove since the queue was created.
+     * It is updated under the same lock as the elements and read without locking.
+     *
+     * @return The number of elements taken out.
+     */
+    long getTakenCount();
+}
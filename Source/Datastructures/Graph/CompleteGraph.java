@@ -0,0 +1,186 @@
+package Source.Datastructures.Graph;
+
+import Source.Datastructures.Graph.Exceptions.NodeNotFoundExceptionGraph;
+
+import java.util.*;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * An undirected complete graph whose edge weights are read from a function of the node indices,
+ * such as the EdgeWeights of a TSPLIB instance, instead of being stored: it takes memory for
+ * its nodes only. Edges are created when they are asked for, so getEdges() allocates an edge
+ * for every pair; the 1-trees of the solver are computed on it with {@link Source.Datastructures.MST.Prim}.
+ * Nodes can be removed but no node or edge can be added.
+ */
+public class CompleteGraph extends Graph {
+    private final IntBinaryOperator weights;
+    private final List<GraphNode> nodes;
+    //index of every node for the weight function, fixed when the graph is created
+    private final Map<GraphNode, Integer> indices;
+
+    /**
+     * @param nodes The nodes, the weight function gets their position in this list.
+     * @param weights The weight of the edge between the nodes of two positions.
+     */
+    public CompleteGraph(List<GraphNode> nodes, IntBinaryOperator weights) {
+        super(false);
+        this.weights = weights;
+        this.nodes = new ArrayList<>(nodes);
+        this.indices = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (indices.put(nodes.get(i), i) != null) {
+                throw new IllegalArgumentException("GraphNode " + nodes.get(i).getID() + " is given twice");
+            }
+        }
+    }
+
+    private CompleteGraph(CompleteGraph graph) {
+        super(false);
+        this.weights = graph.weights;
+        this.nodes = new ArrayList<>(graph.nodes);
+        this.indices = new HashMap<>(graph.indices);
+    }
+
+    /**
+     * Returns the index of a node for the weight function.
+     *
+     * @param graphNode The node.
+     * @return The index, or -1 if the node is not in the graph.
+     */
+    public int indexOf(GraphNode graphNode) {
+        Integer index = indices.get(graphNode);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the weight between two nodes given by their index, without creating an edge.
+     *
+     * @param i The index of the first node.
+     * @param j The index of the second node.
+     * @return The weight of the edge.
+     */
+    public int getWeight(int i, int j) {
+        return weights.applyAsInt(i, j);
+    }
+
+    @Override
+    public void addNode(GraphNode graphNode) {
+        throw new UnsupportedOperationException("The nodes of a complete graph are fixed");
+    }
+
+    @Override
+    public void addEdge(GraphNode graphNode_u, GraphNode graphNode_v, float weight) {
+        throw new UnsupportedOperationException("The edges of a complete graph are fixed");
+    }
+
+    @Override
+    public void addEdge(Edge edge) {
+        throw new UnsupportedOperationException("The edges of a complete graph are fixed");
+    }
+
+    @Override
+    public void Delete_edge(Object node_u, Object node_v) {
+        throw new UnsupportedOperationException("The edges of a complete graph are fixed");
+    }
+
+    @Override
+    public boolean Contains_node(GraphNode v) {
+        return indices.containsKey(v);
+    }
+
+    @Override
+    public boolean Contains_edge(Object node_u, Object node_v) {
+        return node_u != node_v && indices.containsKey(node_u) && indices.containsKey(node_v);
+    }
+
+    @Override
+    public void deleteNode(GraphNode graphNode) {
+        if (indices.remove(graphNode) != null) {
+            nodes.remove(graphNode);
+        }
+    }
+
+    @Override
+    public int getDegree(GraphNode graphNode) throws NodeNotFoundExceptionGraph {
+        if (!Contains_node(graphNode)) {
+            throw new NodeNotFoundExceptionGraph("GraphNode not found in the graph");
+        }
+        return nodes.size() - 1;
+    }
+
+    @Override
+    public int Nodes_number() {
+        return nodes.size();
+    }
+
+    @Override
+    public int Edge_number() {
+        return nodes.size() * (nodes.size() - 1);
+    }
+
+    @Override
+    public List<GraphNode> getNodes() {
+        return new ArrayList<>(nodes);
+    }
+
+    @Override
+    public GraphNode getNodeById(int key) {
+        for (GraphNode graphNode : nodes) {
+            if (graphNode.getID() == key) return graphNode;
+        }
+        return null;
+    }
+
+    @Override
+    public List<Edge> getEdges() {
+        List<Edge> toReturn = new ArrayList<>(Edge_number());
+        for (GraphNode graphNode : nodes) {
+            toReturn.addAll(getEdges(graphNode));
+        }
+        return toReturn;
+    }
+
+    @Override
+    public List<Edge> getEdges(GraphNode graphNode) {
+        Integer index = indices.get(graphNode);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        List<Edge> toReturn = new ArrayList<>(nodes.size() - 1);
+        for (GraphNode other : nodes) {
+            if (other != graphNode) {
+                toReturn.add(new Edge(graphNode, other, weights.applyAsInt(index, indices.get(other))));
+            }
+        }
+        return toReturn;
+    }
+
+    @Override
+    public List<Edge> getEdgesFromNode(GraphNode graphNode) {
+        return getEdges(graphNode);
+    }
+
+    @Override
+    public List<GraphNode> Adj_nodes(GraphNode vertex) {
+        List<GraphNode> result = new ArrayList<>();
+        if (indices.containsKey(vertex)) {
+            for (GraphNode other : nodes) {
+                if (other != vertex) result.add(other);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Edge getEdge(GraphNode graphNode_u, GraphNode graphNode_v) {
+        if (!Contains_edge(graphNode_u, graphNode_v)) {
+            return null;
+        }
+        return new Edge(graphNode_u, graphNode_v, weights.applyAsInt(indices.get(graphNode_u), indices.get(graphNode_v)));
+    }
+
+    @Override
+    public CompleteGraph clone() {
+        return new CompleteGraph(this);
+    }
+}
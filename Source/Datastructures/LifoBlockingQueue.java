@@ -1,88 +1,201 @@
 package Source.Datastructures;
 
 import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
-
-public class LifoBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
-    private final BlockingDeque<E> deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Unbounded LIFO blocking queue guarded by a single lock, so that bulk operations
+//(addAll, drainTo) pay for one lock acquisition instead of one per element
+public class LifoBlockingQueue<E> extends AbstractQueue<E> implements FrontierQueue<E> {
+    private final ArrayDeque<E> deque;
+    private final ReentrantLock lock = new ReentrantLock();
+    //number of elements, written under the lock so that size() can read it without locking
+    private volatile int count = 0;
+    //elements ever taken out, written under the lock
+    private volatile long taken = 0;
+    private final Condition notEmpty = lock.newCondition();
 
     public LifoBlockingQueue() {
-        this.deque = new LinkedBlockingDeque<>();
+        this.deque = new ArrayDeque<>();
     }
 
     @Override
     public boolean offer(E e) {
-        return deque.offerFirst(e);
+        if (e == null) throw new NullPointerException();
+        lock.lock();
+        try {
+            deque.offerFirst(e);
+            count = deque.size();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    //push every element under one lock, the last element of c ends up on top as with repeated offer
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c == this) throw new IllegalArgumentException();
+        if (c.isEmpty()) return false;
+        lock.lock();
+        try {
+            for (E e : c) {
+                if (e == null) throw new NullPointerException();
+                deque.offerFirst(e);
+            }
+            notEmpty.signalAll();
+        } finally {
+            //also after a null element, the ones before it were added
+            count = deque.size();
+            lock.unlock();
+        }
+        return true;
     }
 
     @Override
     public E poll() {
-        return deque.pollFirst();
+        lock.lock();
+        try {
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public E peek() {
-        return deque.peekFirst();
+        lock.lock();
+        try {
+            return deque.peekFirst();
+        } finally {
+            lock.unlock();
+        }
     }
 
+    //weakly consistent: iterates over a snapshot
     @Override
     public Iterator<E> iterator() {
-        return deque.iterator();
+        lock.lock();
+        try {
+            return new ArrayList<>(deque).iterator();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public int size() {
-        return deque.size();
+        return count;
     }
 
     // BlockingQueue methods
     @Override
-    public void put(E e) throws InterruptedException {
-        deque.putFirst(e);
+    public void put(E e) {
+        offer(e);
     }
 
     @Override
-    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
-        return deque.offerFirst(e, timeout, unit);
+    public boolean offer(E e, long timeout, TimeUnit unit) {
+        return offer(e);
     }
 
     @Override
     public E take() throws InterruptedException {
-        return deque.takeFirst();
+        lock.lockInterruptibly();
+        try {
+            while (deque.isEmpty()) {
+                notEmpty.await();
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public E poll(long timeout, TimeUnit unit) throws InterruptedException {
-        return deque.pollFirst(timeout, unit);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (deque.isEmpty()) {
+                if (nanos <= 0L) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getTakenCount() {
+        return taken;
     }
 
     @Override
     public int remainingCapacity() {
-        return deque.remainingCapacity();
+        return Integer.MAX_VALUE;
     }
 
     @Override
     public boolean remove(Object o) {
-        return deque.remove(o);
+        lock.lock();
+        try {
+            boolean removed = deque.remove(o);
+            count = deque.size();
+            if (removed) taken++;
+            return removed;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public boolean contains(Object o) {
-        return deque.contains(o);
+        lock.lock();
+        try {
+            return deque.contains(o);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //called with the lock held
+    private E pollLocked() {
+        E e = deque.pollFirst();
+        count = deque.size();
+        if (e != null) taken++;
+        return e;
     }
 
     @Override
-    public int drainTo(java.util.Collection<? super E> c) {
-        return deque.drainTo(c);
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
     }
 
     @Override
-    public int drainTo(java.util.Collection<? super E> c, int maxElements) {
-        return deque.drainTo(c, maxElements);
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) throw new IllegalArgumentException();
+        if (maxElements <= 0) return 0;
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && !deque.isEmpty()) {
+                c.add(deque.pollFirst());
+                drained++;
+            }
+            count = deque.size();
+            taken += drained;
+            return drained;
+        } finally {
+            lock.unlock();
+        }
     }
 
     // Custom priorityBlockingQueue method to demonstrate usage
@@ -0,0 +1,90 @@
+package Source.Datastructures.MST;
+import Source.Datastructures.Graph.*;
+
+import java.util.*;
+
+public class Prim {
+
+    /**
+     * Computes the minimum spanning tree of a complete graph without one of its nodes, the tree of a 1-tree.
+     * It is the counterpart of Kruskal.MSTFor1Tree for graphs whose weights are read when needed:
+     * it takes O(n^2) time but only O(n) memory besides the tree, and never lists the edges.
+     * Mandatory edges, which must not form a cycle, are always in the tree and forbidden edges never are;
+     * if the forbidden edges disconnect the graph the tree only spans the nodes reached.
+     *
+     * @param graph The complete graph.
+     * @param skippedNode The node left out of the tree, null to span every node.
+     * @param mandatoryEdges The edges the tree must contain, none incident to skippedNode.
+     * @param forbiddenEdges The edges the tree must not contain.
+     * @return The tree, holding the nodes it spans.
+     */
+    public static Graph MSTFor1Tree(CompleteGraph graph, GraphNode skippedNode, List<Edge> mandatoryEdges, List<Edge> forbiddenEdges) {
+        Graph mst = new Graph(false);
+        List<GraphNode> nodes = graph.getNodes();
+        nodes.remove(skippedNode);
+        int size = nodes.size();
+        if (size == 0) {
+            return mst;
+        }
+        int[] index = new int[size];
+        Map<GraphNode, Integer> positions = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            index[i] = graph.indexOf(nodes.get(i));
+            positions.put(nodes.get(i), i);
+        }
+        Set<Long> mandatory = pairKeys(mandatoryEdges, positions, size);
+        Set<Long> forbidden = pairKeys(forbiddenEdges, positions, size);
+
+        //cheapest connection of every node outside the tree, mandatory edges come before any other
+        long[] key = new long[size];
+        int[] parent = new int[size];
+        boolean[] inTree = new boolean[size];
+        Arrays.fill(key, Long.MAX_VALUE);
+        Arrays.fill(parent, -1);
+
+        int current = 0;
+        inTree[current] = true;
+        for (int added = 1; added < size; added++) {
+            for (int v = 0; v < size; v++) {
+                if (inTree[v]) continue;
+                long pair = pairKey(current, v, size);
+                if (forbidden.contains(pair)) continue;
+                long weight = mandatory.contains(pair) ? Long.MIN_VALUE : graph.getWeight(index[current], index[v]);
+                if (weight < key[v]) {
+                    key[v] = weight;
+                    parent[v] = current;
+                }
+            }
+            int next = -1;
+            for (int v = 0; v < size; v++) {
+                if (!inTree[v] && parent[v] >= 0 && (next == -1 || key[v] < key[next])) {
+                    next = v;
+                }
+            }
+            if (next == -1) {
+                break;
+            }
+            inTree[next] = true;
+            mst.addEdge(nodes.get(parent[next]), nodes.get(next), graph.getWeight(index[parent[next]], index[next]));
+            current = next;
+        }
+        return mst;
+    }
+
+    private static Set<Long> pairKeys(List<Edge> edges, Map<GraphNode, Integer> positions, int size) {
+        Set<Long> keys = new HashSet<>();
+        for (Edge edge : edges) {
+            Integer u = positions.get(edge.getU());
+            Integer v = positions.get(edge.getV());
+            if (u != null && v != null) {
+                keys.add(pairKey(u, v, size));
+            }
+        }
+        return keys;
+    }
+
+    private static long pairKey(int u, int v, int size) {
+        return (long) Math.min(u, v) * size + Math.max(u, v);
+    }
+
+}
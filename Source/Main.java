@@ -4,9 +4,13 @@ import Source.BranchAndBoundTSP.Solution;
 import Source.Datastructures.Graph.Graph;
 
 import Source.BranchAndBoundTSP.BranchAndBound;
+import Source.BranchAndBoundTSP.PrometheusExporter;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.parser.TspLibParser;
 
 import java.io.File;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
     public static void main(String[] args) {
@@ -37,24 +41,52 @@ public class Main {
             }
 
             //File tempFile = new File("TSPLIB/burma14.tsp");
-            Graph graph = TSPLIBGraphGenerator.createGraph(inputFile.getAbsolutePath());
+            Tsp tsp = TspLibParser.parseTsp(inputFile.getAbsolutePath());
+            Graph graph = TSPLIBGraphGenerator.createGraph(tsp);
             System.out.println(graph);
 
+            //-Dmetrics.port=<port> serves Prometheus metrics on localhost while solving
+            String metricsPort = System.getProperty("metrics.port");
+            int port = -1;
+            if (metricsPort != null) {
+                try {
+                    port = Integer.parseInt(metricsPort.trim());
+                } catch (NumberFormatException e) {
+                    //reported below
+                }
+                if (port < 0 || port > 65535) {
+                    System.err.println("Invalid metrics.port: " + metricsPort + ". Please provide a port between 0 and 65535.");
+                    return;
+                }
+            }
+
             boolean removeInvalidNodes = false;
-            BranchAndBound branchAndBound = new BranchAndBound(graph, strategy);
+            //closed on every path, the exporter's HTTP server would otherwise keep the JVM alive
+            try (BranchAndBound branchAndBound = new BranchAndBound(graph, strategy);
+                 PrometheusExporter exporter = metricsPort == null ? null : new PrometheusExporter(port)) {
+                //print improving tours as they are found, off the worker threads
+                CompletableFuture<Void> incumbents = branchAndBound.addIncumbentListener(
+                        incumbent -> System.out.println("Solution identified:" + incumbent));
 
+                if (exporter != null) {
+                    exporter.register(tsp.getName() != null ? tsp.getName() : inputFile.getName(), branchAndBound);
+                    System.out.println("Metrics available at http://localhost:" + exporter.getPort() + "/metrics");
+                }
 
-            long time1 = System.currentTimeMillis();
-            Solution result = null;
-            result = branchAndBound.processTask(removeInvalidNodes, threadCount);
+                long time1 = System.currentTimeMillis();
+                Solution result = branchAndBound.processTask(removeInvalidNodes, threadCount);
 
-            long time = System.currentTimeMillis() - time1;
+                long time = System.currentTimeMillis() - time1;
+                //print the last improving tour before the result
+                branchAndBound.close();
+                incumbents.join();
 
-            System.out.println("\n________________________________\n"+result.toString());
+                System.out.println("\n________________________________\n"+result.toString());
 
-            System.out.println(result.generateStatistics());
+                System.out.println(result.generateStatistics());
 
-            System.out.println("Execution time: " + time + " milliseconds");
+                System.out.println("Execution time: " + time + " milliseconds");
+            }
 
 
         } catch (Exception e) {
@@ -1,27 +1,58 @@
 package Source;
 
+import Source.Datastructures.Graph.CompleteGraph;
 import Source.Datastructures.Graph.Graph;
 import Source.Datastructures.Graph.GraphNode;
 import Source.TSPLib.parser.TspLibParser;
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.MatrixEdgeWeights;
 import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.Type;
+
+import java.util.Arrays;
 
 public class TSPLIBGraphGenerator
 {
     public static Graph createGraph(String pathToFile) {
         //parse pathToFile from TSPLIBParser
-        Tsp tsp =  TspLibParser.parseTsp(pathToFile);
+        return createGraph(TspLibParser.parseTsp(pathToFile));
+    }
+
+    public static Graph createGraph(Tsp tsp) {
+        //the graph is undirected, an asymmetric matrix cannot be represented
+        if (tsp.getType() == Type.ATSP) {
+            throw new IllegalArgumentException("Asymmetric instances are not supported: " + tsp.getName());
+        }
+        EdgeWeights edgeWeights = tsp.getEdgeWeights().orElseThrow(() -> new IllegalArgumentException("No edge weight data found"));
+        //the node of weight index i has id i + 1
+        GraphNode[] nodes = new GraphNode[edgeWeights.getDimension()];
+        tsp.getNodes().ifPresent(tspNodes -> tspNodes.forEach(node -> {
+            if (node.getId() < 1 || node.getId() > nodes.length) {
+                throw new IllegalArgumentException("Node id out of range: " + node.getId());
+            }
+            nodes[node.getId() - 1] = new NodeGraph(node.getId(), node.getX(), node.getY());
+        }));
+        //explicit instances without display data only have weights, their nodes are numbered from 1
+        for (int id = 1; id <= nodes.length; id++) {
+            if (nodes[id - 1] == null) {
+                nodes[id - 1] = new NodeGraph(id, 0, 0);
+            }
+        }
+        //weights not held in a matrix (large coordinate instances, packed triangles, off-heap weights)
+        //are read from the instance by the solver instead of becoming an edge object per pair
+        if (!(edgeWeights instanceof MatrixEdgeWeights)) {
+            return new CompleteGraph(Arrays.asList(nodes), edgeWeights::getWeight);
+        }
+
         Graph graph = new Graph(false);
-        //for each node in TSP, add a node to the graph
-        tsp.getNodes().ifPresent(nodes -> nodes.forEach(node -> graph.addNode(new NodeGraph(node.getId(), node.getX(), node.getY()))));
-        //calculate edge weights matrix from TSP
-        int[][] edgeWeights = tsp.getEdgeWeightData().orElseThrow(() -> new IllegalArgumentException("No edge weight data found"));
+        for (GraphNode node : nodes) {
+            graph.addNode(node);
+        }
 
         //for each edge in TSP, add an edge to the graph with the corresponding weight but the graph is undirected so don't add the edge twice
-        for (int i = 1; i <= edgeWeights.length; i++) {
-            for (int j = 1; j <= edgeWeights[i-1].length; j++) {
-                if (i < j) {
-                    graph.addEdge(graph.getNodeById(i), graph.getNodeById(j), edgeWeights[i-1][j-1]);
-                }
+        for (int i = 1; i <= edgeWeights.getDimension(); i++) {
+            for (int j = i + 1; j <= edgeWeights.getDimension(); j++) {
+                graph.addEdge(nodes[i-1], nodes[j-1], edgeWeights.getWeight(i-1, j-1));
             }
         }
 
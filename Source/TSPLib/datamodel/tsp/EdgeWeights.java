@@ -0,0 +1,36 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.datamodel.tsp;
+
+/**
+ * Access to the edge weights of a {@link Tsp}, whether they are held in a matrix or computed
+ * from the node coordinates when asked for. Nodes are given by their index in the instance,
+ * from 0 to dimension - 1. Implementations can be read from several threads.
+ */
+public interface EdgeWeights {
+
+    /**
+     * @return the number of nodes
+     */
+    int getDimension();
+
+    /**
+     * @param i the index of the first node
+     * @param j the index of the second node
+     * @return the weight of the edge from node i to node j
+     */
+    int getWeight(int i, int j);
+}
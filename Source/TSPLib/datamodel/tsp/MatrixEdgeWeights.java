@@ -0,0 +1,42 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.datamodel.tsp;
+
+/**
+ * {@link EdgeWeights} held in a dimension x dimension matrix.
+ */
+public final class MatrixEdgeWeights implements EdgeWeights {
+
+    private final int[][] matrix;
+
+    public MatrixEdgeWeights(int[][] matrix) {
+        this.matrix = matrix;
+    }
+
+    @Override
+    public int getDimension() {
+        return matrix.length;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        return matrix[i][j];
+    }
+
+    public int[][] getMatrix() {
+        return matrix;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.datamodel.tsp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Symmetric {@link EdgeWeights} kept outside the heap, in a file mapped read-only. The weights
+ * are the flat upper triangle of {@link PackedEdgeWeights}, big-endian, each of the same
+ * {@link PackedEdgeWeights.Width}, and may take more than 2 GB: the file is mapped in segments
+ * of 1 GB. Weights mapped from the same file by several JVMs share the pages of the operating
+ * system's file cache, and the garbage collector never scans or copies them.
+ * The off-heap weights are used for the weights of an instance cache when -Dtsplib.offHeapWeights=true.
+ */
+public final class OffHeapEdgeWeights implements EdgeWeights {
+
+    //1 GB, a multiple of every width, so that no weight spans two segments
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final int dimension;
+    private final PackedEdgeWeights.Width width;
+    private final ByteBuffer[] segments;
+
+    private OffHeapEdgeWeights(int dimension, PackedEdgeWeights.Width width, ByteBuffer[] segments) {
+        this.dimension = dimension;
+        this.width = width;
+        this.segments = segments;
+    }
+
+    /**
+     * @return true if the weights of an instance cache are mapped, with -Dtsplib.offHeapWeights=true
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("tsplib.offHeapWeights");
+    }
+
+    /**
+     * Maps the weights of a file. The mapping stays valid once the channel is closed.
+     *
+     * @param channel the file, open for reading
+     * @param offset the position of the first weight in the file
+     * @param dimension the number of nodes
+     * @param width the width of every weight
+     * @return the weights
+     * @throws IOException if the file cannot be mapped or is too short
+     */
+    public static OffHeapEdgeWeights map(FileChannel channel, long offset, int dimension,
+                                         PackedEdgeWeights.Width width) throws IOException {
+        final long length = (long) dimension * (dimension - 1) / 2 * width.getBytes();
+        if (offset + length > channel.size()) {
+            throw new IOException("The file ends before the weights of " + dimension + " nodes");
+        }
+        final ByteBuffer[] segments = new ByteBuffer[(int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+        for (int k = 0; k < segments.length; k++) {
+            final long start = (long) k << SEGMENT_SHIFT;
+            segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start,
+                    Math.min(length - start, 1L << SEGMENT_SHIFT));
+        }
+        return new OffHeapEdgeWeights(dimension, width, segments);
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        final long position = PackedEdgeWeights.longIndex(dimension, i, j) * width.getBytes();
+        return width.get(segments[(int) (position >>> SEGMENT_SHIFT)], (int) (position & SEGMENT_MASK));
+    }
+}
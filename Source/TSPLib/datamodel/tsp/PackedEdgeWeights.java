@@ -0,0 +1,204 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.datamodel.tsp;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Symmetric {@link EdgeWeights} stored once, as the flat upper triangle without diagonal, row
+ * after row. The weights are kept as chars when they are all in [0, 65535], as shorts when they
+ * are all in [-32768, 32767], and as ints otherwise, so that most instances take a quarter of
+ * the memory of a dimension x dimension int matrix. The diagonal is 0.
+ * Packing is used for explicit instances in a triangular format, and is turned off with
+ * -Dtsplib.packedWeights=false.
+ */
+public final class PackedEdgeWeights implements EdgeWeights {
+
+    //the largest array the JVM allocates
+    private static final long MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * The narrowest type holding a set of weights, and how it is read from and written to bytes.
+     */
+    public enum Width {
+        CHAR(Character.BYTES),
+        SHORT(Short.BYTES),
+        INT(Integer.BYTES);
+
+        private final int bytes;
+
+        Width(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @param min the smallest weight
+         * @param max the largest weight
+         * @return the narrowest width holding all weights from min to max
+         */
+        public static Width of(int min, int max) {
+            if (min >= Character.MIN_VALUE && max <= Character.MAX_VALUE) {
+                return CHAR;
+            }
+            return min >= Short.MIN_VALUE && max <= Short.MAX_VALUE ? SHORT : INT;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+
+        public int get(ByteBuffer buffer, int index) {
+            switch (this) {
+                case CHAR:
+                    return buffer.getChar(index);
+                case SHORT:
+                    return buffer.getShort(index);
+                default:
+                    return buffer.getInt(index);
+            }
+        }
+
+        public void write(DataOutput out, int weight) throws IOException {
+            switch (this) {
+                case CHAR:
+                    out.writeChar(weight);
+                    break;
+                case SHORT:
+                    out.writeShort(weight);
+                    break;
+                default:
+                    out.writeInt(weight);
+            }
+        }
+    }
+
+    private final int dimension;
+    private final char[] chars;
+    private final short[] shorts;
+    private final int[] ints;
+
+    /**
+     * Packs a triangle filled by the caller, narrowing it when the weights allow.
+     *
+     * @param dimension the number of nodes
+     * @param triangle the upper triangle, from {@link #newTriangle(int)}; it is not used afterwards
+     *                 if the weights are narrowed
+     */
+    public PackedEdgeWeights(int dimension, int[] triangle) {
+        if (triangle.length != length(dimension)) {
+            throw new IllegalArgumentException("Invalid triangle length " + triangle.length + " for dimension " + dimension);
+        }
+        int min = 0;
+        int max = 0;
+        for (int weight : triangle) {
+            min = Math.min(min, weight);
+            max = Math.max(max, weight);
+        }
+        this.dimension = dimension;
+        final Width width = Width.of(min, max);
+        if (width == Width.CHAR) {
+            chars = new char[triangle.length];
+            for (int k = 0; k < triangle.length; k++) {
+                chars[k] = (char) triangle[k];
+            }
+            shorts = null;
+            ints = null;
+        } else if (width == Width.SHORT) {
+            shorts = new short[triangle.length];
+            for (int k = 0; k < triangle.length; k++) {
+                shorts[k] = (short) triangle[k];
+            }
+            chars = null;
+            ints = null;
+        } else {
+            ints = triangle;
+            chars = null;
+            shorts = null;
+        }
+    }
+
+    /**
+     * @return false if packing is turned off with -Dtsplib.packedWeights=false
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("tsplib.packedWeights"));
+    }
+
+    /**
+     * @param dimension the number of nodes
+     * @return true if the triangle of this many nodes fits in one array
+     */
+    public static boolean fits(int dimension) {
+        return (long) dimension * (dimension - 1) / 2 <= MAX_LENGTH;
+    }
+
+    /**
+     * @param dimension the number of nodes
+     * @return an empty triangle for this many nodes, to be filled through {@link #index(int, int, int)}
+     */
+    public static int[] newTriangle(int dimension) {
+        if (!fits(dimension)) {
+            throw new IllegalArgumentException("Too many nodes for a packed triangle: " + dimension);
+        }
+        return new int[length(dimension)];
+    }
+
+    /**
+     * @param dimension the number of nodes
+     * @param i the index of a node
+     * @param j the index of another node
+     * @return the position of the weight between nodes i and j in the triangle
+     */
+    public static int index(int dimension, int i, int j) {
+        return (int) longIndex(dimension, i, j);
+    }
+
+    /**
+     * @return the position of the weight between nodes i and j in a triangle of any size
+     * @see #index(int, int, int)
+     */
+    public static long longIndex(int dimension, int i, int j) {
+        if (i > j) {
+            final int swap = i;
+            i = j;
+            j = swap;
+        }
+        return (long) i * (2L * dimension - i - 1) / 2 + j - i - 1;
+    }
+
+    private static int length(int dimension) {
+        return (int) ((long) dimension * (dimension - 1) / 2);
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        final int k = index(dimension, i, j);
+        if (chars != null) {
+            return chars[k];
+        }
+        return shorts != null ? shorts[k] : ints[k];
+    }
+}
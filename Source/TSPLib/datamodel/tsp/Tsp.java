@@ -17,6 +17,7 @@ package Source.TSPLib.datamodel.tsp;
 
 
 import Source.TSPLib.datamodel.types.*;
+import Source.TSPLib.util.CoordinateEdgeWeights;
 import Source.TSPLib.util.EdgeWeightCalculationMethodFactory;
 
 import java.util.List;
@@ -24,11 +25,18 @@ import java.util.Optional;
 
 /**
  * Representation of TSPLIB tsp file.
+ * The weights of a coordinate instance are computed into a matrix when it has at most
+ * tsplib.denseDimension nodes (4096 unless set with -Dtsplib.denseDimension=n); larger ones
+ * only have {@link EdgeWeights} computing the weights when they are read, with a row cache of
+ * at most {@value #ROW_CACHE_WEIGHTS} weights.
  *
  * @author Maciej Laskowski
  */
 public final class Tsp {
 
+    private static final int DENSE_DIMENSION = Integer.getInteger("tsplib.denseDimension", 4096);
+    private static final int ROW_CACHE_WEIGHTS = 1 << 24;
+
     private final String name;
     private final Type type;
     private final EdgeWeightType edgeWeightType;
@@ -38,12 +46,21 @@ public final class Tsp {
     private final DisplayDataType displayDataType;
     private final NodeCoordType nodeCoordType;
     private final Optional<List<Node>> nodes;
-    private Optional<int[][]> edgeWeightData;
+    private final Optional<int[][]> edgeWeightData;
+    private final Optional<EdgeWeights> edgeWeights;
 
     public Tsp(String name, Type type, EdgeWeightType edgeWeightType,
                EdgeWeightFormat edgeWeightFormat, int dimension, String comment,
                DisplayDataType displayDataType, NodeCoordType nodeCoordType,
                List<Node> nodes, int[][] edgeWeightData) {
+        this(name, type, edgeWeightType, edgeWeightFormat, dimension, comment, displayDataType, nodeCoordType,
+                nodes, edgeWeightData == null ? null : new MatrixEdgeWeights(edgeWeightData));
+    }
+
+    public Tsp(String name, Type type, EdgeWeightType edgeWeightType,
+               EdgeWeightFormat edgeWeightFormat, int dimension, String comment,
+               DisplayDataType displayDataType, NodeCoordType nodeCoordType,
+               List<Node> nodes, EdgeWeights edgeWeights) {
         this.name = name;
         this.type = type;
         this.edgeWeightType = edgeWeightType;
@@ -53,19 +70,18 @@ public final class Tsp {
         this.nodes = Optional.ofNullable(nodes);
         this.displayDataType = displayDataType;
         this.nodeCoordType = nodeCoordType;
-        this.edgeWeightData = Optional.ofNullable(edgeWeightData);
-        if(this.nodes.isPresent() && !this.edgeWeightData.isPresent()){
-            //for each nodes in nodes, calculate the distance to all other nodes and store it in edgeWeightData using EdgeWeightCalculationMethodFactory biFunction
-            int[][] edgeWeights = new int[dimension][dimension];
-            for (int i = 0; i < dimension; i++) {
-                for (int j = 0; j < dimension; j++) {
-                    if (i != j) {
-                        edgeWeights[i][j] = EdgeWeightCalculationMethodFactory.getEdgeWeightCalculationMethod(edgeWeightType).apply(this.nodes.get().get(i), this.nodes.get().get(j));
-                    }
-                }
+        if(edgeWeights == null && nodes != null){
+            if(dimension <= DENSE_DIMENSION){
+                //calculate the distance between every pair of nodes with the kernel of the edge weight type
+                edgeWeights = new MatrixEdgeWeights(EdgeWeightCalculationMethodFactory.createMatrix(edgeWeightType, nodes, dimension));
+            } else {
+                edgeWeights = new CoordinateEdgeWeights(edgeWeightType, nodes, dimension,
+                        ROW_CACHE_WEIGHTS / Math.max(1, dimension));
             }
-            this.edgeWeightData = Optional.of(edgeWeights);
         }
+        this.edgeWeights = Optional.ofNullable(edgeWeights);
+        this.edgeWeightData = edgeWeights instanceof MatrixEdgeWeights
+                ? Optional.of(((MatrixEdgeWeights) edgeWeights).getMatrix()) : Optional.empty();
     }
 
     public String getName() {
@@ -104,10 +120,28 @@ public final class Tsp {
         return nodes;
     }
 
+    /**
+     * Returns the weights as a full matrix, which not every instance has: the result is empty for
+     * coordinate instances of more than tsplib.denseDimension nodes, for explicit instances in a
+     * triangular format (unless -Dtsplib.packedWeights=false) and for weights mapped off the heap
+     * from the cache.
+     *
+     * @return the weight matrix, if the weights are held in one
+     * @deprecated an empty result does not mean the instance has no weights: use {@link #getEdgeWeights()},
+     * which every instance with weights has, whatever their storage
+     */
+    @Deprecated
     public Optional<int[][]> getEdgeWeightData() {
         return edgeWeightData;
     }
 
+    /**
+     * @return the edge weights, from the matrix or computed from the node coordinates
+     */
+    public Optional<EdgeWeights> getEdgeWeights() {
+        return edgeWeights;
+    }
+
     /**
      * The class represents a node which contains it's ID and coordinates.
      *
@@ -27,6 +27,11 @@ public enum Type {
      */
     TSP,
 
+    /**
+     * Data for asymmetric travelling salesman problem
+     */
+    ATSP,
+
     /**
      * A collection of tours
      */
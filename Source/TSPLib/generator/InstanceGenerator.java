@@ -0,0 +1,252 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.generator;
+
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.EdgeWeightFormat;
+import Source.TSPLib.datamodel.types.EdgeWeightType;
+import Source.TSPLib.datamodel.types.Type;
+import Source.TSPLib.stateparser.DataBuffer;
+
+import java.util.Random;
+
+/**
+ * Seeded generators of synthetic instances, in any size, for scaling studies.
+ * The same arguments always give the same instance. Euclidean instances use EUC_2D distances;
+ * the graph for the solver is obtained with TSPLIBGraphGenerator.createGraph(Tsp).
+ * The circle and grid instances have an optimum known in closed form, see {@link #circleOptimum(int)}
+ * and {@link #gridOptimum(int, int)}.
+ */
+public final class InstanceGenerator {
+
+    //distance between neighbouring points of a grid instance
+    static final int GRID_SPACING = 100;
+
+    private InstanceGenerator() {
+    }
+
+    /**
+     * Generates points drawn uniformly in a square.
+     *
+     * @param dimension The number of nodes.
+     * @param side The side of the square.
+     * @param seed The random seed.
+     * @return The instance.
+     */
+    public static Tsp uniform(int dimension, int side, long seed) {
+        checkDimension(dimension);
+        Random random = new Random(seed);
+        DataBuffer buffer = euclideanBuffer("uniform" + dimension + "-" + seed, dimension,
+                "Uniform random points in a square of side " + side);
+        for (int id = 1; id <= dimension; id++) {
+            buffer.addNode(node(id, random.nextDouble() * side, random.nextDouble() * side));
+        }
+        return buffer.buildTsp();
+    }
+
+    /**
+     * Generates points around uniformly drawn cluster centres, with a normal spread.
+     *
+     * @param dimension The number of nodes.
+     * @param clusters The number of clusters.
+     * @param side The side of the square holding the points.
+     * @param seed The random seed.
+     * @return The instance.
+     */
+    public static Tsp clustered(int dimension, int clusters, int side, long seed) {
+        checkDimension(dimension);
+        if (clusters < 1) {
+            throw new IllegalArgumentException("At least one cluster is needed");
+        }
+        Random random = new Random(seed);
+        double[][] centres = new double[clusters][2];
+        for (double[] centre : centres) {
+            centre[0] = random.nextDouble() * side;
+            centre[1] = random.nextDouble() * side;
+        }
+        double spread = side / (4 * Math.sqrt(clusters));
+        DataBuffer buffer = euclideanBuffer("clustered" + dimension + "-" + clusters + "-" + seed, dimension,
+                clusters + " normal clusters in a square of side " + side);
+        for (int id = 1; id <= dimension; id++) {
+            double[] centre = centres[random.nextInt(clusters)];
+            buffer.addNode(node(id, clamp(centre[0] + random.nextGaussian() * spread, side),
+                    clamp(centre[1] + random.nextGaussian() * spread, side)));
+        }
+        return buffer.buildTsp();
+    }
+
+    /**
+     * Generates the points of a rows x columns grid with spacing GRID_SPACING, numbered in a
+     * seeded random order so that the node ids do not give the tour away.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param seed The random seed of the numbering.
+     * @return The instance, whose optimum is gridOptimum(rows, columns).
+     */
+    public static Tsp grid(int rows, int columns, long seed) {
+        if (rows < 2 || columns < 2) {
+            throw new IllegalArgumentException("A grid needs at least 2 rows and 2 columns");
+        }
+        int dimension = rows * columns;
+        int[] position = shuffledPositions(dimension, seed);
+        DataBuffer buffer = euclideanBuffer("grid" + rows + "x" + columns + "-" + seed, dimension,
+                rows + "x" + columns + " grid, optimal tour length " + gridOptimum(rows, columns));
+        for (int id = 1; id <= dimension; id++) {
+            int p = position[id - 1];
+            buffer.addNode(node(id, (double) (p % columns) * GRID_SPACING, (double) (p / columns) * GRID_SPACING));
+        }
+        return buffer.buildTsp();
+    }
+
+    /**
+     * Generates evenly spaced points on a circle, numbered in a seeded random order.
+     * The radius grows with the square of the dimension, so that rounding the distances to
+     * integers cannot make any tour shorter than the polygon.
+     *
+     * @param dimension The number of nodes, at least 3.
+     * @param seed The random seed of the numbering.
+     * @return The instance, whose optimum is circleOptimum(dimension).
+     */
+    public static Tsp circle(int dimension, long seed) {
+        checkDimension(dimension);
+        int[] position = shuffledPositions(dimension, seed);
+        double radius = circleRadius(dimension);
+        DataBuffer buffer = euclideanBuffer("circle" + dimension + "-" + seed, dimension,
+                "Points on a circle, optimal tour length " + circleOptimum(dimension));
+        for (int id = 1; id <= dimension; id++) {
+            double[] point = circlePoint(position[id - 1], dimension, radius);
+            buffer.addNode(node(id, point[0], point[1]));
+        }
+        return buffer.buildTsp();
+    }
+
+    /**
+     * Generates an asymmetric explicit matrix with weights drawn uniformly in [1, maxWeight].
+     * The solver only handles symmetric instances, so this is for the TSPLIB layer and for
+     * tools working on the matrix.
+     *
+     * @param dimension The number of nodes.
+     * @param maxWeight The largest weight.
+     * @param seed The random seed.
+     * @return An ATSP instance with a FULL_MATRIX section.
+     */
+    public static Tsp asymmetric(int dimension, int maxWeight, long seed) {
+        checkDimension(dimension);
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("The largest weight must be positive");
+        }
+        Random random = new Random(seed);
+        DataBuffer buffer = new DataBuffer()
+                .withName("asymmetric" + dimension + "-" + seed)
+                .withType(Type.ATSP)
+                .withComment("Random asymmetric weights in [1, " + maxWeight + "]")
+                .withDimension(dimension)
+                .withEdgeWeightType(EdgeWeightType.EXPLICIT)
+                .withEdgeWeightFormat(EdgeWeightFormat.FULL_MATRIX);
+        for (int i = 0; i < dimension; i++) {
+            int[] row = new int[dimension];
+            for (int j = 0; j < dimension; j++) {
+                row[j] = (i == j) ? 0 : 1 + random.nextInt(maxWeight);
+            }
+            buffer.withEdgeWeightData(row);
+        }
+        return buffer.buildTsp();
+    }
+
+    /**
+     * Returns the optimal tour length of grid(rows, columns, seed): one step per node when
+     * rows x columns is even, otherwise one of the steps has to be a diagonal.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @return The optimal tour length.
+     */
+    public static int gridOptimum(int rows, int columns) {
+        int dimension = rows * columns;
+        if (dimension % 2 == 0) {
+            return dimension * GRID_SPACING;
+        }
+        return (dimension - 1) * GRID_SPACING + (int) Math.round(GRID_SPACING * Math.sqrt(2));
+    }
+
+    /**
+     * Returns the optimal tour length of circle(dimension, seed), the perimeter of the polygon
+     * with EUC_2D rounding.
+     *
+     * @param dimension The number of nodes.
+     * @return The optimal tour length.
+     */
+    public static int circleOptimum(int dimension) {
+        double radius = circleRadius(dimension);
+        int length = 0;
+        for (int i = 0; i < dimension; i++) {
+            double[] from = circlePoint(i, dimension, radius);
+            double[] to = circlePoint((i + 1) % dimension, dimension, radius);
+            length += (int) Math.round(Math.hypot(from[0] - to[0], from[1] - to[1]));
+        }
+        return length;
+    }
+
+    private static double circleRadius(int dimension) {
+        //a swap of two neighbours lengthens the polygon by about 4 * pi * radius / n, more than the n/2 rounding error
+        return Math.max(1000.0, (double) dimension * dimension);
+    }
+
+    private static double[] circlePoint(int index, int dimension, double radius) {
+        double angle = 2 * Math.PI * index / dimension;
+        return new double[]{radius + radius * Math.cos(angle), radius + radius * Math.sin(angle)};
+    }
+
+    private static int[] shuffledPositions(int dimension, long seed) {
+        Random random = new Random(seed);
+        int[] position = new int[dimension];
+        for (int i = 0; i < dimension; i++) {
+            position[i] = i;
+        }
+        for (int i = dimension - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = position[i];
+            position[i] = position[j];
+            position[j] = swap;
+        }
+        return position;
+    }
+
+    private static DataBuffer euclideanBuffer(String name, int dimension, String comment) {
+        return new DataBuffer()
+                .withName(name)
+                .withType(Type.TSP)
+                .withComment(comment)
+                .withDimension(dimension)
+                .withEdgeWeightType(EdgeWeightType.EUC_2D);
+    }
+
+    private static Tsp.Node node(int id, double x, double y) {
+        //Tsp.Node takes the y coordinate first
+        return new Tsp.Node(id, y, x);
+    }
+
+    private static double clamp(double value, int side) {
+        return Math.max(0, Math.min(side, value));
+    }
+
+    private static void checkDimension(int dimension) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("An instance needs at least 3 nodes");
+        }
+    }
+}
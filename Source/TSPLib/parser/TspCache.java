@@ -0,0 +1,328 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.parser;
+
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.MatrixEdgeWeights;
+import Source.TSPLib.datamodel.tsp.OffHeapEdgeWeights;
+import Source.TSPLib.datamodel.tsp.PackedEdgeWeights;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.DisplayDataType;
+import Source.TSPLib.datamodel.types.EdgeWeightFormat;
+import Source.TSPLib.datamodel.types.EdgeWeightType;
+import Source.TSPLib.datamodel.types.NodeCoordType;
+import Source.TSPLib.datamodel.types.Type;
+import Source.TSPLib.util.CoordinateEdgeWeights;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A binary copy of a parsed tsp file, kept beside it as file.cache, so that later loads map it
+ * instead of parsing the text and computing the distances again.
+ * The cache is used while the size and modification time of the source file are the ones it was
+ * written for; a cache of another version, or whose checksum does not match, is ignored.
+ * Caching is on by default and is turned off with -Dtsplib.cache=false.
+ *
+ * Layout (big-endian): magic "TSPC", version, source size and modification time, name, type,
+ * comment, edge weight type and format, display data type, node coord type, dimension, the nodes
+ * (id, y, x), the weights, and a CRC32C of all the bytes before it. Symmetric weights are stored
+ * as the dimension, the {@link PackedEdgeWeights.Width} of the weights and the flat upper triangle
+ * without diagonal, row after row, which is also the layout of {@link PackedEdgeWeights}; other
+ * weights as the full matrix of ints. Coordinate instances too large for a weight matrix are
+ * stored without weights.
+ * With -Dtsplib.offHeapWeights=true the triangle is not loaded but mapped, as
+ * {@link OffHeapEdgeWeights}, so that it may be larger than 2 GB and be shared by the JVMs
+ * loading the same instance.
+ */
+public final class TspCache {
+
+    static final String SUFFIX = ".cache";
+    private static final int MAGIC = 0x54535043;
+    private static final int VERSION = 2;
+    private static final byte NO_WEIGHTS = 0;
+    private static final byte UPPER_TRIANGLE = 1;
+    private static final byte FULL_MATRIX = 2;
+    private static final long CHECKSUM_SEGMENT = 1L << 30;
+
+    private TspCache() {
+    }
+
+    /**
+     * @return false if caching is turned off with -Dtsplib.cache=false
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("tsplib.cache"));
+    }
+
+    /**
+     * @param source a tsp file
+     * @return the path of its cache
+     */
+    public static Path cachePath(Path source) {
+        return source.resolveSibling(source.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Loads the cache of a tsp file.
+     *
+     * @param source the tsp file
+     * @return the cached instance, or null if there is no usable cache for the current source file
+     */
+    public static Tsp read(Path source) {
+        final Path cache = cachePath(source);
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < 32) {
+                return null;
+            }
+            //the weights past the first 2 GB can only be mapped apart, as off-heap weights
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != Files.size(source)
+                    || buffer.getLong() != Files.getLastModifiedTime(source).toMillis()) {
+                return null;
+            }
+            if (!checksumMatches(channel, size)) {
+                return null;
+            }
+            return decode(buffer, channel);
+        } catch (IOException | RuntimeException e) {
+            //a missing, stale or damaged cache is rebuilt from the source
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache of a tsp file. The file is written under a temporary name and moved in place,
+     * so that concurrent loads never see a partial cache.
+     *
+     * @param source the tsp file
+     * @param tsp the parsed instance
+     * @throws IOException if the cache cannot be written
+     */
+    public static void write(Path source, Tsp tsp) throws IOException {
+        final Path cache = cachePath(source);
+        final long sourceSize = Files.size(source);
+        final long sourceModified = Files.getLastModifiedTime(source).toMillis();
+        final Path temporary = Files.createTempFile(cache.toAbsolutePath().getParent(), cache.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temporary)) {
+                final CheckedOutputStream checked = new CheckedOutputStream(file, new CRC32C());
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(sourceSize);
+                out.writeLong(sourceModified);
+                encode(out, tsp);
+                out.flush();
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+            }
+            try {
+                Files.move(temporary, cache, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static boolean checksumMatches(FileChannel channel, long size) throws IOException {
+        final long end = size - Long.BYTES;
+        final CRC32C crc = new CRC32C();
+        for (long start = 0; start < end; start += CHECKSUM_SEGMENT) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHECKSUM_SEGMENT, end - start)));
+        }
+        return crc.getValue() == channel.map(FileChannel.MapMode.READ_ONLY, end, Long.BYTES).getLong();
+    }
+
+    private static void encode(DataOutputStream out, Tsp tsp) throws IOException {
+        writeString(out, tsp.getName());
+        writeString(out, name(tsp.getType()));
+        writeString(out, tsp.getComment());
+        writeString(out, name(tsp.getEdgeWeightType()));
+        writeString(out, name(tsp.getEdgeWeightFormat()));
+        writeString(out, name(tsp.getDisplayDataType()));
+        writeString(out, name(tsp.getNodeCoordType()));
+        out.writeInt(tsp.getDimension());
+
+        final List<Tsp.Node> nodes = tsp.getNodes().orElse(null);
+        out.writeInt(nodes == null ? -1 : nodes.size());
+        if (nodes != null) {
+            for (Tsp.Node node : nodes) {
+                out.writeInt(node.getId());
+                out.writeDouble(node.getY());
+                out.writeDouble(node.getX());
+            }
+        }
+
+        //weights computed from the coordinates are not stored
+        final EdgeWeights edgeWeights = tsp.getEdgeWeights()
+                .filter(w -> !(w instanceof CoordinateEdgeWeights)).orElse(null);
+        final int[][] weights = edgeWeights instanceof MatrixEdgeWeights
+                ? ((MatrixEdgeWeights) edgeWeights).getMatrix() : null;
+        if (edgeWeights == null) {
+            out.writeByte(NO_WEIGHTS);
+        } else if (weights == null || isSymmetric(weights)) {
+            final int size = edgeWeights.getDimension();
+            int min = 0;
+            int max = 0;
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    min = Math.min(min, edgeWeights.getWeight(i, j));
+                    max = Math.max(max, edgeWeights.getWeight(i, j));
+                }
+            }
+            final PackedEdgeWeights.Width width = PackedEdgeWeights.Width.of(min, max);
+            out.writeByte(UPPER_TRIANGLE);
+            out.writeInt(size);
+            out.writeByte(width.ordinal());
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    width.write(out, edgeWeights.getWeight(i, j));
+                }
+            }
+        } else {
+            out.writeByte(FULL_MATRIX);
+            out.writeInt(weights.length);
+            for (int[] row : weights) {
+                out.writeInt(row.length);
+                for (int weight : row) {
+                    out.writeInt(weight);
+                }
+            }
+        }
+    }
+
+    private static Tsp decode(ByteBuffer buffer, FileChannel channel) throws IOException {
+        final String name = readString(buffer);
+        final String type = readString(buffer);
+        final String comment = readString(buffer);
+        final String edgeWeightType = readString(buffer);
+        final String edgeWeightFormat = readString(buffer);
+        final String displayDataType = readString(buffer);
+        final String nodeCoordType = readString(buffer);
+        final int dimension = buffer.getInt();
+
+        final int nodeCount = buffer.getInt();
+        List<Tsp.Node> nodes = null;
+        if (nodeCount >= 0) {
+            nodes = new ArrayList<>(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(new Tsp.Node(buffer.getInt(), buffer.getDouble(), buffer.getDouble()));
+            }
+        }
+
+        EdgeWeights edgeWeights = null;
+        final byte layout = buffer.get();
+        final EdgeWeightFormat format = edgeWeightFormat == null ? null : EdgeWeightFormat.valueOf(edgeWeightFormat);
+        if (layout == UPPER_TRIANGLE) {
+            final int size = buffer.getInt();
+            final PackedEdgeWeights.Width width = PackedEdgeWeights.Width.values()[buffer.get()];
+            if (OffHeapEdgeWeights.isEnabled()) {
+                edgeWeights = OffHeapEdgeWeights.map(channel, buffer.position(), size, width);
+            } else if (EdgeWeightFormat.isTriangular(format) && PackedEdgeWeights.isEnabled()) {
+                //the cache has the layout of the packed triangle
+                final int[] triangle = PackedEdgeWeights.newTriangle(size);
+                int position = buffer.position();
+                for (int k = 0; k < triangle.length; k++, position += width.getBytes()) {
+                    triangle[k] = width.get(buffer, position);
+                }
+                edgeWeights = new PackedEdgeWeights(size, triangle);
+            } else {
+                final int[][] weights = new int[size][size];
+                int position = buffer.position();
+                for (int i = 0; i < size; i++) {
+                    for (int j = i + 1; j < size; j++, position += width.getBytes()) {
+                        weights[i][j] = width.get(buffer, position);
+                        weights[j][i] = weights[i][j];
+                    }
+                }
+                edgeWeights = new MatrixEdgeWeights(weights);
+            }
+        } else if (layout == FULL_MATRIX) {
+            final int[][] weights = new int[buffer.getInt()][];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = new int[buffer.getInt()];
+                buffer.asIntBuffer().get(weights[i]);
+                buffer.position(buffer.position() + weights[i].length * Integer.BYTES);
+            }
+            edgeWeights = new MatrixEdgeWeights(weights);
+        }
+
+        return new Tsp(name,
+                type == null ? null : Type.valueOf(type),
+                edgeWeightType == null ? null : EdgeWeightType.valueOf(edgeWeightType),
+                format, dimension, comment,
+                displayDataType == null ? null : DisplayDataType.valueOf(displayDataType),
+                nodeCoordType == null ? null : NodeCoordType.valueOf(nodeCoordType),
+                nodes, edgeWeights);
+    }
+
+    private static boolean isSymmetric(int[][] weights) {
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i].length != weights.length || weights[i][i] != 0) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (weights[i][j] != weights[j][i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -16,24 +16,41 @@
 package Source.TSPLib.parser;
 
 import Source.TSPLib.datamodel.tour.Tour;
+import Source.TSPLib.datamodel.tsp.OffHeapEdgeWeights;
 import Source.TSPLib.datamodel.tsp.Tsp;
 import Source.TSPLib.exception.TspLibException;
 import Source.TSPLib.stateparser.DataBuffer;
+import Source.TSPLib.stateparser.LineTokenizer;
 import Source.TSPLib.stateparser.ParsingContext;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Objects;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
 
 /**
  * The parser class for getting object representation of TSPLIB files.
+ * Files are memory-mapped and their data sections are read straight from the
+ * bytes by a {@link LineTokenizer}. Gzip files (ending in .gz), files over 2 GB,
+ * which do not fit in a single mapping, streams and channels are read incrementally,
+ * through a small window. The EDGE_WEIGHT_SECTION of large mapped files is read in parallel. Parsed tsp files are kept in a binary {@link TspCache}
+ * beside them, which is loaded instead of the text while it is fresh.
  *
  * @author Maciej Laskowski
  */
 public class TspLibParser {
 
+    //files from this size on have their EDGE_WEIGHT_SECTION read on the common pool, if it has several threads;
+    //on a single thread the two passes of the parallel reader are slower than reading line by line
+    private static final long PARALLEL_THRESHOLD = 1 << 20;
+
     /**
      * Parses TSPLIB tsp file and returns it's object representation.
      *
@@ -41,7 +58,39 @@ public class TspLibParser {
      * @return object representation of TSPLIB tsp file
      */
     public static Tsp parseTsp(String pathToFile) {
-        return getFilledItemBuilder(pathToFile).buildTsp();
+        return loadTsp(pathToFile, null);
+    }
+
+    /**
+     * Parses TSPLIB tsp file, reading its EDGE_WEIGHT_SECTION in parallel on a pool
+     * whatever its size. Gzip files are read line by line.
+     *
+     * @param pathToFile absolute path to tsp file
+     * @param pool the pool the edge weights are read on
+     * @return object representation of TSPLIB tsp file
+     */
+    public static Tsp parseTsp(String pathToFile, ForkJoinPool pool) {
+        return loadTsp(pathToFile, pool);
+    }
+
+    /**
+     * Parses TSPLIB tsp content from a stream. The stream is not closed.
+     *
+     * @param inputStream stream of the tsp file content, uncompressed
+     * @return object representation of TSPLIB tsp file
+     */
+    public static Tsp parseTsp(InputStream inputStream) {
+        return parseTsp(Channels.newChannel(inputStream));
+    }
+
+    /**
+     * Parses TSPLIB tsp content from a channel. The channel is not closed.
+     *
+     * @param channel channel of the tsp file content, uncompressed
+     * @return object representation of TSPLIB tsp file
+     */
+    public static Tsp parseTsp(ReadableByteChannel channel) {
+        return getFilledItemBuilder(new LineTokenizer(channel), null).buildTsp();
     }
 
     /**
@@ -51,27 +100,86 @@ public class TspLibParser {
      * @return representation of TSPLIB tour file
      */
     public static Tour parseTour(String pathToFile) {
-        return getFilledItemBuilder(pathToFile).buildTour();
+        return getFilledItemBuilder(pathToFile, null).buildTour();
     }
 
-    private static DataBuffer getFilledItemBuilder(String pathToFile) {
-        final DataBuffer builder = new DataBuffer();
-        final ParsingContext context = new ParsingContext();
+    /**
+     * Parses TSPLIB tour content from a stream. The stream is not closed.
+     *
+     * @param inputStream stream of the tour file content, uncompressed
+     * @return representation of TSPLIB tour file
+     */
+    public static Tour parseTour(InputStream inputStream) {
+        return parseTour(Channels.newChannel(inputStream));
+    }
+
+    /**
+     * Parses TSPLIB tour content from a channel. The channel is not closed.
+     *
+     * @param channel channel of the tour file content, uncompressed
+     * @return representation of TSPLIB tour file
+     */
+    public static Tour parseTour(ReadableByteChannel channel) {
+        return getFilledItemBuilder(new LineTokenizer(channel), null).buildTour();
+    }
+
+    private static Tsp loadTsp(String pathToFile, ForkJoinPool pool) {
+        if (!TspCache.isEnabled()) {
+            return getFilledItemBuilder(pathToFile, pool).buildTsp();
+        }
+        final Path source = Paths.get(pathToFile);
+        Tsp tsp = TspCache.read(source);
+        if (tsp == null) {
+            tsp = getFilledItemBuilder(pathToFile, pool).buildTsp();
+            try {
+                TspCache.write(source, tsp);
+                if (OffHeapEdgeWeights.isEnabled()) {
+                    //load the weights just written as a mapping, so that they leave the heap
+                    final Tsp mapped = TspCache.read(source);
+                    if (mapped != null) {
+                        tsp = mapped;
+                    }
+                }
+            } catch (IOException e) {
+                //e.g. a read-only directory: the file is parsed again next time
+            }
+        }
+        return tsp;
+    }
+
+    private static DataBuffer getFilledItemBuilder(String pathToFile, ForkJoinPool pool) {
+        if (pathToFile.endsWith(".gz")) {
+            try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(Paths.get(pathToFile)))) {
+                return getFilledItemBuilder(new LineTokenizer(Channels.newChannel(inputStream)), null);
+            } catch (IOException e) {
+                throw new TspLibException(e.getMessage());
+            }
+        }
 
-        try {
-            getNonEmptyTrimmedLines(Files.lines(Paths.get(pathToFile)))
-                    .forEach(line -> context.consumeLine(line, builder));
+        try (FileChannel channel = FileChannel.open(Paths.get(pathToFile), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                //a single mapping cannot hold the file: read it through the channel instead
+                return getFilledItemBuilder(new LineTokenizer(channel), null);
+            }
+            if (pool == null && size >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                pool = ForkJoinPool.commonPool();
+            }
+            return getFilledItemBuilder(new LineTokenizer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)), pool);
         } catch (IOException e) {
             throw new TspLibException(e.getMessage());
         }
-
-        return builder;
     }
 
-    private static Stream<String> getNonEmptyTrimmedLines(Stream<String> stream) {
-        return stream.filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(line -> !line.isEmpty());
+    private static DataBuffer getFilledItemBuilder(LineTokenizer line, ForkJoinPool pool) {
+        final DataBuffer builder = new DataBuffer();
+        final ParsingContext context = new ParsingContext(pool);
+
+        while (line.nextLine()) {
+            context.consumeLine(line, builder);
+        }
+
+        return builder;
     }
 
     public static void main(String[] args) {
@@ -16,6 +16,7 @@
 package Source.TSPLib.stateparser;
 
 import Source.TSPLib.datamodel.tour.Tour;
+import Source.TSPLib.datamodel.tsp.PackedEdgeWeights;
 import Source.TSPLib.datamodel.tsp.Tsp;
 import Source.TSPLib.datamodel.types.*;
 import Source.TSPLib.exception.TspLibException;
@@ -41,9 +42,15 @@ public class DataBuffer {
     private List<Tsp.Node> nodes;
     private List<int[]> tours;
     private int[][] edgeWeightData;
+    //the weights of a triangular format, when they are packed, instead of edgeWeightData
+    private int[] edgeWeightTriangle;
+    //true if edgeWeightData was set as a whole, already symmetric
+    private boolean edgeWeightDataComplete;
     private int lastTourEmptyIndex;
     private int lastEdgeWeightDataEmptyRowIndex;
     private int fillIndex;
+    //column after the last value of the row being filled, for the triangular formats
+    private int rowEnd;
 
     public DataBuffer withName(String name) {
         this.name = name;
@@ -110,28 +117,40 @@ public class DataBuffer {
     }
 
     public DataBuffer withEdgeWeightData(int[] data) {
-        if (edgeWeightData == null) {
-            edgeWeightData = new int[dimension][dimension];
-            if (EdgeWeightFormat.UPPER_DIAG_ROW.equals(edgeWeightFormat)) {
-                lastEdgeWeightDataEmptyRowIndex = -1;
-            }
+        if (EdgeWeightFormat.FULL_MATRIX.equals(edgeWeightFormat)) {
+            initEdgeWeightData();
+            edgeWeightData[lastEdgeWeightDataEmptyRowIndex] = data;
+            lastEdgeWeightDataEmptyRowIndex++;
+            return this;
         }
+        return withEdgeWeightData(data, data.length);
+    }
+
+    /**
+     * Adds the first length values of data, as {@link #withEdgeWeightData(int[])} does.
+     * The values are copied, so the array can be reused for the next line.
+     *
+     * @param data the values of a line of EDGE_WEIGHT_SECTION
+     * @param length the number of values in data
+     * @return this buffer
+     */
+    public DataBuffer withEdgeWeightData(int[] data, int length) {
+        initEdgeWeightData();
         switch (edgeWeightFormat) {
             case FULL_MATRIX:
-                edgeWeightData[lastEdgeWeightDataEmptyRowIndex] = data;
+                int[] row = edgeWeightData[lastEdgeWeightDataEmptyRowIndex];
+                if (row.length != length) {
+                    row = new int[length];
+                    edgeWeightData[lastEdgeWeightDataEmptyRowIndex] = row;
+                }
+                System.arraycopy(data, 0, row, 0, length);
                 lastEdgeWeightDataEmptyRowIndex++;
                 break;
             case UPPER_ROW:
-                putinEdgeWeightData(data, lastEdgeWeightDataEmptyRowIndex + 1);
-                break;
             case LOWER_ROW:
-                putinEdgeWeightData(data, 0);
-                break;
             case LOWER_DIAG_ROW:
-                putInEdgeWeightDataLowerDiag(data);
-                break;
             case UPPER_DIAG_ROW:
-                putInEdgeWeightDataUpperDiag(data);
+                putInEdgeWeightTriangle(data, length);
                 break;
             default:
                 throw new TspLibException("Can't parseTsp for edge weight format " + edgeWeightFormat);
@@ -139,41 +158,105 @@ public class DataBuffer {
         return this;
     }
 
-    private void putinEdgeWeightData(int[] data, int initialFillIndex) {
-        fillIndex = initialFillIndex;
-        for (int element : data) {
-            edgeWeightData[lastEdgeWeightDataEmptyRowIndex][fillIndex] = element;
-            fillIndex++;
-        }
-        lastEdgeWeightDataEmptyRowIndex++;
+    /**
+     * Sets the whole edge weight matrix, e.g. read in parallel, instead of adding it line by line.
+     *
+     * @param matrix the complete dimension x dimension matrix, symmetric for triangular formats
+     * @return this buffer
+     */
+    public DataBuffer withEdgeWeightMatrix(int[][] matrix) {
+        this.edgeWeightData = matrix;
+        this.edgeWeightDataComplete = true;
+        return this;
     }
 
-    private void putInEdgeWeightDataLowerDiag(int[] data) {
-        for (int element : data) {
-            if (element == 0) {
-                lastEdgeWeightDataEmptyRowIndex++;
-                fillIndex = 0;
+    /**
+     * Sets the whole upper triangle of the weights, e.g. read in parallel, instead of adding it
+     * line by line.
+     *
+     * @param triangle the upper triangle, laid out as {@link PackedEdgeWeights} expects
+     * @return this buffer
+     */
+    public DataBuffer withEdgeWeightTriangle(int[] triangle) {
+        this.edgeWeightTriangle = triangle;
+        return this;
+    }
+
+    /**
+     * @return true if the weights of the format are read into a {@link PackedEdgeWeights} triangle
+     * rather than a matrix
+     */
+    boolean isPacked() {
+        return EdgeWeightFormat.isTriangular(edgeWeightFormat) && PackedEdgeWeights.isEnabled()
+                && PackedEdgeWeights.fits(dimension);
+    }
+
+    int getDimension() {
+        return dimension;
+    }
+
+    EdgeWeightFormat getEdgeWeightFormat() {
+        return edgeWeightFormat;
+    }
+
+    private void initEdgeWeightData() {
+        if (edgeWeightData == null && edgeWeightTriangle == null) {
+            if (isPacked()) {
+                edgeWeightTriangle = PackedEdgeWeights.newTriangle(dimension);
             } else {
-                edgeWeightData[lastEdgeWeightDataEmptyRowIndex][fillIndex] = element;
-                fillIndex++;
+                edgeWeightData = new int[dimension][dimension];
+            }
+            if (EdgeWeightFormat.isTriangular(edgeWeightFormat)) {
+                //the first value moves to the first row
+                lastEdgeWeightDataEmptyRowIndex = -1;
+                fillIndex = 0;
+                rowEnd = 0;
             }
         }
     }
 
-    private void putInEdgeWeightDataUpperDiag(int[] data) {
-        for (int element : data) {
-            if (element == 0) {
+    /**
+     * Places the values of a triangular format by their position in the section, as
+     * {@link EdgeWeightSectionReader} does: every row has the number of values of its format,
+     * whatever the line breaks and the values, zeros included.
+     */
+    private void putInEdgeWeightTriangle(int[] data, int length) {
+        for (int i = 0; i < length; i++) {
+            //the loop skips the empty rows, e.g. the first row of LOWER_ROW
+            while (fillIndex == rowEnd) {
                 lastEdgeWeightDataEmptyRowIndex++;
-                fillIndex = lastEdgeWeightDataEmptyRowIndex + 1;
-            } else {
-                edgeWeightData[lastEdgeWeightDataEmptyRowIndex][fillIndex] = element;
-                fillIndex++;
+                if (lastEdgeWeightDataEmptyRowIndex >= dimension) {
+                    throw new TspLibException("Too many values in EDGE_WEIGHT_SECTION for dimension " + dimension);
+                }
+                fillIndex = EdgeWeightSectionReader.firstColumn(edgeWeightFormat, lastEdgeWeightDataEmptyRowIndex);
+                rowEnd = fillIndex
+                        + EdgeWeightSectionReader.rowLength(edgeWeightFormat, dimension, lastEdgeWeightDataEmptyRowIndex);
+            }
+            setEdgeWeight(lastEdgeWeightDataEmptyRowIndex, fillIndex, data[i]);
+            fillIndex++;
+        }
+    }
+
+    private void setEdgeWeight(int row, int column, int weight) {
+        if (edgeWeightTriangle == null) {
+            edgeWeightData[row][column] = weight;
+        } else if (row != column) {
+            //the same failure as writing out of the matrix
+            if (row < 0 || row >= dimension || column < 0 || column >= dimension) {
+                throw new ArrayIndexOutOfBoundsException("Index " + (row < 0 || row >= dimension ? row : column)
+                        + " out of bounds for length " + dimension);
             }
+            edgeWeightTriangle[PackedEdgeWeights.index(dimension, row, column)] = weight;
         }
     }
 
     public Tsp buildTsp() {
-        if (edgeWeightData != null
+        if (edgeWeightTriangle != null) {
+            return new Tsp(name, type, edgeWeightType, edgeWeightFormat, dimension,
+                    comment.toString(), displayDataType, nodeCoordType, nodes,
+                    new PackedEdgeWeights(dimension, edgeWeightTriangle));
+        }
+        if (edgeWeightData != null && !edgeWeightDataComplete
                 && EdgeWeightFormat.isTriangular(edgeWeightFormat)) {
             fillInvertedValues();
         }
@@ -0,0 +1,278 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.stateparser;
+
+import Source.TSPLib.datamodel.tsp.PackedEdgeWeights;
+import Source.TSPLib.datamodel.types.EdgeWeightFormat;
+import Source.TSPLib.exception.TspLibException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Reads a whole EDGE_WEIGHT_SECTION in parallel, when the file is in memory.
+ * The bytes from the first data line on are split into chunks at line boundaries. A first pass
+ * counts the values of every chunk and finds the keyword line ending the section; a second pass
+ * parses the chunks, each one writing from the matrix cell of its first value, known from the
+ * counts of the chunks before it and the row layout of the {@link EdgeWeightFormat}.
+ * The values are taken as a stream, so rows may be wrapped over several lines.
+ * Triangular formats are read straight into a {@link PackedEdgeWeights} triangle when the
+ * buffer packs them.
+ */
+public final class EdgeWeightSectionReader {
+
+    //below this many bytes per chunk the section is not split further
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    //chunks per thread, so that uneven chunks balance out
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * The values of one chunk, found by the first pass.
+     */
+    private static final class Chunk {
+        private final int start;
+        private int end;
+        private int lines;
+        private long values;
+        //offset of the keyword line ending the section, or -1 if the chunk has none
+        private int keywordOffset = -1;
+        private long firstValue;
+        private int firstLineNumber;
+
+        private Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private EdgeWeightSectionReader() {
+    }
+
+    /**
+     * Reads the section starting at the current line of the tokenizer into the buffer, and moves
+     * the tokenizer to the line ending the section.
+     *
+     * @param line the tokenizer, on the first data line, with the whole file in memory
+     * @param builder the buffer, whose dimension and edge weight format are known
+     * @param pool the pool the chunks are read on
+     * @return false if nothing was read, because the format is not supported or the number
+     * of values does not match the dimension; the section is then left to be read line by line
+     */
+    public static boolean read(LineTokenizer line, DataBuffer builder, ForkJoinPool pool) {
+        final EdgeWeightFormat format = builder.getEdgeWeightFormat();
+        final int dimension = builder.getDimension();
+        if (!line.isInMemory() || format == null || format == EdgeWeightFormat.FUNCTION || dimension <= 0) {
+            return false;
+        }
+        final long[] rowStart = rowStarts(format, dimension);
+        final ByteBuffer buffer = line.getBuffer();
+
+        final List<Chunk> chunks = split(buffer, line.getLineStart(), pool.getParallelism());
+        invokeAll(pool, chunks, chunk -> count(buffer, chunk));
+
+        //keep the chunks up to the end of the section
+        final List<Chunk> section = new ArrayList<>();
+        long values = 0;
+        int lineNumber = line.getLineNumber() - 1;
+        for (Chunk chunk : chunks) {
+            chunk.firstValue = values;
+            chunk.firstLineNumber = lineNumber;
+            values += chunk.values;
+            lineNumber += chunk.lines;
+            section.add(chunk);
+            if (chunk.keywordOffset >= 0) {
+                chunk.end = chunk.keywordOffset;
+                break;
+            }
+        }
+        if (values != rowStart[dimension]) {
+            return false;
+        }
+
+        if (builder.isPacked()) {
+            final int[] triangle = PackedEdgeWeights.newTriangle(dimension);
+            invokeAll(pool, section, chunk -> fill(buffer, chunk, format, rowStart, null, triangle));
+            builder.withEdgeWeightTriangle(triangle);
+        } else {
+            final int[][] matrix = new int[dimension][dimension];
+            invokeAll(pool, section, chunk -> fill(buffer, chunk, format, rowStart, matrix, null));
+            builder.withEdgeWeightMatrix(matrix);
+        }
+
+        final Chunk last = section.get(section.size() - 1);
+        line.skipTo(last.keywordOffset >= 0 ? last.keywordOffset : buffer.limit(), lineNumber);
+        return true;
+    }
+
+    /**
+     * Returns the index of the first value of every row in the section, and the number of values
+     * at index dimension.
+     */
+    private static long[] rowStarts(EdgeWeightFormat format, int dimension) {
+        final long[] rowStart = new long[dimension + 1];
+        for (int row = 0; row < dimension; row++) {
+            rowStart[row + 1] = rowStart[row] + rowLength(format, dimension, row);
+        }
+        return rowStart;
+    }
+
+    /**
+     * @return the number of values of a row of the format in the section
+     */
+    static int rowLength(EdgeWeightFormat format, int dimension, int row) {
+        switch (format) {
+            case FULL_MATRIX:
+                return dimension;
+            case UPPER_ROW:
+                return dimension - 1 - row;
+            case LOWER_ROW:
+                return row;
+            case UPPER_DIAG_ROW:
+                return dimension - row;
+            case LOWER_DIAG_ROW:
+                return row + 1;
+            default:
+                throw new TspLibException("Can't parseTsp for edge weight format " + format);
+        }
+    }
+
+    /**
+     * @return the column of the first value of a row of the format
+     */
+    static int firstColumn(EdgeWeightFormat format, int row) {
+        switch (format) {
+            case UPPER_ROW:
+                return row + 1;
+            case UPPER_DIAG_ROW:
+                return row;
+            default:
+                return 0;
+        }
+    }
+
+    private static List<Chunk> split(ByteBuffer buffer, int start, int parallelism) {
+        final int end = buffer.limit();
+        final int count = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD,
+                (end - start) / MIN_CHUNK_SIZE));
+        final List<Chunk> chunks = new ArrayList<>(count);
+        int chunkStart = start;
+        for (int i = 1; i <= count; i++) {
+            int chunkEnd = (i == count) ? end : (int) (start + (long) (end - start) * i / count);
+            while (chunkEnd < end && buffer.get(chunkEnd - 1) != '\n') {
+                chunkEnd++;
+            }
+            if (chunkEnd > chunkStart) {
+                chunks.add(new Chunk(chunkStart, chunkEnd));
+                chunkStart = chunkEnd;
+            }
+        }
+        return chunks;
+    }
+
+    private static void count(ByteBuffer buffer, Chunk chunk) {
+        final LineTokenizer line = new LineTokenizer(slice(buffer, chunk.start, chunk.end), 0);
+        while (line.nextLine()) {
+            if (!line.isNumeric()) {
+                chunk.keywordOffset = line.getLineStart();
+                chunk.lines = line.getLineNumber() - 1;
+                return;
+            }
+            chunk.values += line.countValues();
+        }
+        //the blank lines at the end of the chunk are counted as well
+        chunk.lines = line.getLineNumber();
+    }
+
+    /**
+     * Writes the values of a chunk into the matrix, mirrored for triangular formats, or into the
+     * packed triangle when there is no matrix.
+     */
+    private static void fill(ByteBuffer buffer, Chunk chunk, EdgeWeightFormat format, long[] rowStart,
+                             int[][] matrix, int[] triangle) {
+        if (chunk.values == 0) {
+            return;
+        }
+        //the cell of the first value of the chunk
+        int row = 0;
+        while (rowStart[row + 1] <= chunk.firstValue) {
+            row++;
+        }
+        int column = firstColumn(format, row) + (int) (chunk.firstValue - rowStart[row]);
+        int rowEnd = firstColumn(format, row) + (int) (rowStart[row + 1] - rowStart[row]);
+
+        final int dimension = rowStart.length - 1;
+        final boolean symmetric = format != EdgeWeightFormat.FULL_MATRIX;
+        final LineTokenizer line = new LineTokenizer(slice(buffer, chunk.start, chunk.end), chunk.firstLineNumber);
+        while (line.nextLine()) {
+            while (line.hasNext()) {
+                final int value = line.nextInt();
+                if (triangle != null) {
+                    if (row != column) {
+                        triangle[PackedEdgeWeights.index(dimension, row, column)] = value;
+                    }
+                } else {
+                    matrix[row][column] = value;
+                    if (symmetric) {
+                        matrix[column][row] = value;
+                    }
+                }
+                column++;
+                if (column == rowEnd) {
+                    do {
+                        row++;
+                    } while (row < dimension && rowStart[row + 1] == rowStart[row]);
+                    if (row < dimension) {
+                        column = firstColumn(format, row);
+                        rowEnd = column + (int) (rowStart[row + 1] - rowStart[row]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        return buffer.duplicate().limit(end).position(start);
+    }
+
+    private static void invokeAll(ForkJoinPool pool, List<Chunk> chunks, Consumer<Chunk> task) {
+        final List<Callable<Void>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            tasks.add(() -> {
+                task.accept(chunk);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TspLibException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TspLibException("Interrupted while reading EDGE_WEIGHT_SECTION");
+        }
+    }
+}
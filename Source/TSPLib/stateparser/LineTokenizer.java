@@ -0,0 +1,386 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.stateparser;
+
+import Source.TSPLib.exception.TspLibException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a TSPLIB file held in a {@link ByteBuffer} line by line, and the values of a line
+ * one by one straight from the bytes, without creating a {@link String} per value.
+ * Blank lines are skipped and lines are trimmed, as in the line based parser.
+ * The bytes either are all in the buffer, e.g. a memory-mapped file, or are read from a
+ * {@link ReadableByteChannel} into a window that only grows to hold the longest line.
+ */
+public class LineTokenizer {
+
+    //powers of ten represented exactly as doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    //digits of a mantissa that always fits exactly in a double
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private boolean endOfInput;
+    private ByteBuffer buffer;
+    private int nextLineStart;
+    private int lineStart;
+    private int lineEnd;
+    private int position;
+    private int lineNumber;
+
+    /**
+     * @param buffer The content of the file, from its position to its limit.
+     */
+    public LineTokenizer(ByteBuffer buffer) {
+        this.channel = null;
+        this.buffer = buffer;
+        this.nextLineStart = buffer.position();
+    }
+
+    /**
+     * A tokenizer for a part of a file whose lines are numbered from lineNumber + 1.
+     */
+    LineTokenizer(ByteBuffer buffer, int lineNumber) {
+        this(buffer);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @param channel The source of the file, read incrementally. It is not closed by the tokenizer.
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     */
+    public LineTokenizer(ReadableByteChannel channel) {
+        //a non-blocking channel may read nothing, the tokenizer would spin waiting for data
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException("Non-blocking channels are not supported");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(WINDOW_SIZE);
+        this.buffer.flip();
+    }
+
+    /**
+     * Moves to the next line that is not blank.
+     *
+     * @return false if there are no more lines
+     */
+    public boolean nextLine() {
+        while (nextLineStart < buffer.limit() || refill() >= 0) {
+            int start = nextLineStart;
+            int end = start;
+            while (true) {
+                int limit = buffer.limit();
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                int shift;
+                if (end < limit || (shift = refill()) < 0) {
+                    break;
+                }
+                start -= shift;
+                end -= shift;
+            }
+            nextLineStart = end + 1;
+            lineNumber++;
+            while (start < end && isBlank(buffer.get(start))) {
+                start++;
+            }
+            while (end > start && isBlank(buffer.get(end - 1))) {
+                end--;
+            }
+            if (start < end) {
+                lineStart = start;
+                lineEnd = end;
+                position = start;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the unread bytes to the start of the window and reads more from the channel,
+     * growing the window if a line does not fit.
+     *
+     * @return by how many bytes the content moved back, or -1 if nothing more can be read
+     */
+    private int refill() {
+        if (channel == null || endOfInput) {
+            return -1;
+        }
+        int shift = nextLineStart;
+        buffer.position(shift);
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            buffer = larger.put(buffer);
+        }
+        try {
+            int read;
+            while ((read = channel.read(buffer)) == 0) {
+                //nothing available yet: let other threads run rather than spin
+                Thread.yield();
+            }
+            endOfInput = read < 0;
+        } catch (IOException e) {
+            throw new TspLibException(e.getMessage());
+        }
+        buffer.flip();
+        nextLineStart = 0;
+        return shift;
+    }
+
+    /**
+     * @return The number of the current line in the file, starting at 1.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return true if the whole file is in the buffer, so that it can be read at any position
+     */
+    public boolean isInMemory() {
+        return channel == null;
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    int getLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Continues with the line starting at offset, the line before it having number lineNumber.
+     */
+    void skipTo(int offset, int lineNumber) {
+        nextLineStart = offset;
+        this.lineNumber = lineNumber;
+        lineEnd = lineStart;
+        position = lineStart;
+    }
+
+    /**
+     * @return The number of values on the current line, which are not read.
+     */
+    int countValues() {
+        int count = 0;
+        while (hasNext()) {
+            skipToken();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if the current line starts like a number, i.e. it is a data line
+     * and not a keyword line.
+     *
+     * @return true if the current line starts with a digit, a sign or a decimal point
+     */
+    public boolean isNumeric() {
+        byte first = buffer.get(lineStart);
+        return (first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.';
+    }
+
+    /**
+     * @return true if the current line has values left
+     */
+    public boolean hasNext() {
+        skipBlanks();
+        return position < lineEnd;
+    }
+
+    /**
+     * Reads the next value of the current line as an int.
+     *
+     * @return the value
+     * @throws TspLibException if there is no value left or it is not an int
+     */
+    public int nextInt() {
+        int start = tokenStart();
+        boolean negative = false;
+        byte b = buffer.get(position);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (position < lineEnd && !isBlank(b = buffer.get(position))) {
+            if (b < '0' || b > '9' || value > Integer.MAX_VALUE) {
+                throw invalid("int", start);
+            }
+            value = value * 10 + (b - '0');
+            digits++;
+            position++;
+        }
+        value = negative ? -value : value;
+        if (digits == 0 || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw invalid("int", start);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the next value of the current line as a double.
+     * Values with up to 15 significant digits and a decimal exponent up to 22 are converted
+     * with a single correctly rounded operation; other values go through {@link Double#parseDouble}.
+     * Either way the result is the same as {@link Double#parseDouble}.
+     *
+     * @return the value
+     * @throws TspLibException if there is no value left or it is not a number
+     */
+    public double nextDouble() {
+        int start = tokenStart();
+        boolean negative = false;
+        byte b = buffer.get(position);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        boolean exact = true;
+        while (position < lineEnd && !isBlank(b = buffer.get(position))) {
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    significantDigits++;
+                }
+                if (significantDigits <= MAX_EXACT_DIGITS) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else {
+                    exact = false;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if ((b == 'e' || b == 'E') && anyDigit) {
+                position++;
+                int explicitExponent = readExponent();
+                if (explicitExponent == Integer.MIN_VALUE) {
+                    exact = false;
+                } else {
+                    exponent += explicitExponent;
+                }
+                break;
+            } else {
+                exact = false;
+            }
+            position++;
+        }
+        skipToken();
+        if (!anyDigit || !exact || exponent > 22 || exponent < -22) {
+            return parseToken(start);
+        }
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    //reads the digits after 'e', returns Integer.MIN_VALUE if they do not end the value
+    private int readExponent() {
+        boolean negative = false;
+        byte b = position < lineEnd ? buffer.get(position) : (byte) ' ';
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            position++;
+        }
+        int value = 0;
+        int digits = 0;
+        while (position < lineEnd && (b = buffer.get(position)) >= '0' && b <= '9') {
+            //large exponents are left to Double.parseDouble anyway
+            if (value < 1000) {
+                value = value * 10 + (b - '0');
+            }
+            digits++;
+            position++;
+        }
+        if (digits == 0 || (position < lineEnd && !isBlank(buffer.get(position)))) {
+            return Integer.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return The current line, trimmed.
+     */
+    @Override
+    public String toString() {
+        return decode(lineStart, lineEnd);
+    }
+
+    private int tokenStart() {
+        if (!hasNext()) {
+            throw new TspLibException("Missing value at line " + lineNumber + ": " + this);
+        }
+        return position;
+    }
+
+    private double parseToken(int start) {
+        try {
+            return Double.parseDouble(decode(start, position));
+        } catch (NumberFormatException e) {
+            throw invalid("number", start);
+        }
+    }
+
+    private TspLibException invalid(String kind, int start) {
+        position = start;
+        skipToken();
+        return new TspLibException("Invalid " + kind + " \"" + decode(start, position) + "\" at line " + lineNumber);
+    }
+
+    private void skipToken() {
+        while (position < lineEnd && !isBlank(buffer.get(position))) {
+            position++;
+        }
+    }
+
+    private void skipBlanks() {
+        while (position < lineEnd && isBlank(buffer.get(position))) {
+            position++;
+        }
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //the whitespace String.trim removes; bytes of multi-byte UTF-8 characters are negative
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -18,6 +18,8 @@ package Source.TSPLib.stateparser;
 import Source.TSPLib.stateparser.states.SpecificationState;
 import Source.TSPLib.stateparser.states.State;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * A context of the parser.
  *
@@ -25,10 +27,27 @@ import Source.TSPLib.stateparser.states.State;
  */
 public class ParsingContext {
     private State state;
+    private final ForkJoinPool pool;
+
     public ParsingContext() {
+        this(null);
+    }
+
+    /**
+     * @param pool the pool reading large data sections in parallel, or null to read them line by line
+     */
+    public ParsingContext(ForkJoinPool pool) {
+        this.pool = pool;
         setState(new SpecificationState());
     }
 
+    /**
+     * @return the pool reading large data sections in parallel, or null
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
     /**
      * Setter method for the state.
      * Normally only called by classes implementing the State interface.
@@ -48,4 +67,14 @@ public class ParsingContext {
     public void consumeLine(final String line, DataBuffer builder) {
         state.consumeLine(this, line, builder);
     }
+
+    /**
+     * Consumes the current line of a tokenizer by passing it to the actual state.
+     *
+     * @param line a tokenizer positioned on the line to be consumed
+     * @param builder
+     */
+    public void consumeLine(final LineTokenizer line, DataBuffer builder) {
+        state.consumeLine(this, line, builder);
+    }
 }
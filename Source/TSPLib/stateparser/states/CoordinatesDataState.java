@@ -17,6 +17,7 @@ package Source.TSPLib.stateparser.states;
 
 import Source.TSPLib.datamodel.tsp.Tsp;
 import Source.TSPLib.stateparser.DataBuffer;
+import Source.TSPLib.stateparser.LineTokenizer;
 import Source.TSPLib.stateparser.ParsingContext;
 
 /**
@@ -36,6 +37,15 @@ public class CoordinatesDataState implements DataState {
         builder.addNode(node);
     }
 
+    @Override
+    public void consumeLine(final ParsingContext context, final LineTokenizer line,
+                            DataBuffer builder) {
+        if (stateChanged(context, line)) {
+            return;
+        }
+        builder.addNode(new Tsp.Node(line.nextInt(), line.nextDouble(), line.nextDouble()));
+    }
+
     private Tsp.Node mapToNode(String[] values) {
         return new Tsp.Node(
                 Integer.parseInt(values[0]),
@@ -16,6 +16,7 @@
 package Source.TSPLib.stateparser.states;
 
 import Source.TSPLib.stateparser.KeywordAndValue;
+import Source.TSPLib.stateparser.LineTokenizer;
 import Source.TSPLib.stateparser.ParsingContext;
 
 /**
@@ -34,6 +35,18 @@ public interface DataState extends State {
         return false;
     }
 
+    /**
+     * Same as {@link #stateChanged(ParsingContext, String)}, but a line starting like
+     * a number is known to be data and is not converted to a {@link String}.
+     *
+     * @param context the context of the parser
+     * @param line the tokenizer positioned on the line
+     * @return true if the line was a keyword and the state changed
+     */
+    default boolean stateChanged(ParsingContext context, LineTokenizer line) {
+        return !line.isNumeric() && stateChanged(context, line.toString());
+    }
+
     /**
      * Takes as a param {@link String} with not known number of whitespaces
      * and values. Returns array of values represented as {@link String}
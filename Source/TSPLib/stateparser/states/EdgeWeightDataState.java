@@ -16,8 +16,12 @@
 package Source.TSPLib.stateparser.states;
 
 import Source.TSPLib.stateparser.DataBuffer;
+import Source.TSPLib.stateparser.EdgeWeightSectionReader;
+import Source.TSPLib.stateparser.LineTokenizer;
 import Source.TSPLib.stateparser.ParsingContext;
 
+import java.util.Arrays;
+
 /**
  * State of the parser to consume edge weight data.
  *
@@ -25,6 +29,9 @@ import Source.TSPLib.stateparser.ParsingContext;
  */
 public class EdgeWeightDataState implements DataState {
 
+    //values of the current line, reused from line to line
+    private int[] values = new int[16];
+
     @Override
     public void consumeLine(ParsingContext context, String line, DataBuffer builder) {
         if (stateChanged(context, line)) {
@@ -34,6 +41,25 @@ public class EdgeWeightDataState implements DataState {
         builder.withEdgeWeightData(convertToInt(valuesArray));
     }
 
+    @Override
+    public void consumeLine(ParsingContext context, LineTokenizer line, DataBuffer builder) {
+        if (stateChanged(context, line)) {
+            return;
+        }
+        if (context.getPool() != null && line.isInMemory()
+                && EdgeWeightSectionReader.read(line, builder, context.getPool())) {
+            return;
+        }
+        int count = 0;
+        while (line.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = line.nextInt();
+        }
+        builder.withEdgeWeightData(values, count);
+    }
+
     private int[] convertToInt(String[] valuesArray) {
         final int[] result = new int[valuesArray.length];
         for (int i = 0; i < valuesArray.length; i++) {
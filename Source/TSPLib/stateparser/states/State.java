@@ -19,6 +19,7 @@ import Source.TSPLib.exception.TspLibException;
 import Source.TSPLib.stateparser.DataBuffer;
 import Source.TSPLib.stateparser.Keyword;
 import Source.TSPLib.stateparser.KeywordAndValue;
+import Source.TSPLib.stateparser.LineTokenizer;
 import Source.TSPLib.stateparser.ParsingContext;
 
 import java.util.stream.Stream;
@@ -32,6 +33,18 @@ public interface State {
 
     void consumeLine(ParsingContext context, String line, DataBuffer builder);
 
+    /**
+     * Consumes a line read by a {@link LineTokenizer}. By default the line is
+     * consumed as a {@link String}; data states read its values directly.
+     *
+     * @param context the context of the parser
+     * @param line the tokenizer positioned on the line
+     * @param builder the buffer to fill
+     */
+    default void consumeLine(ParsingContext context, LineTokenizer line, DataBuffer builder) {
+        consumeLine(context, line.toString(), builder);
+    }
+
     /**
      * Extracts {@link KeywordAndValue} object from a TSPLIB file line.
      *
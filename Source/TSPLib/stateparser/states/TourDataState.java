@@ -16,6 +16,7 @@
 package Source.TSPLib.stateparser.states;
 
 import Source.TSPLib.stateparser.DataBuffer;
+import Source.TSPLib.stateparser.LineTokenizer;
 import Source.TSPLib.stateparser.ParsingContext;
 
 /**
@@ -41,4 +42,19 @@ public class TourDataState implements DataState {
         }
     }
 
+    @Override
+    public void consumeLine(ParsingContext context, LineTokenizer line, DataBuffer builder) {
+        if (stateChanged(context, line)) {
+            return;
+        }
+        while (line.hasNext()) {
+            final int step = line.nextInt();
+            if (step > 0) {
+                builder.addTourStep(step);
+            } else {
+                builder.finishLastTour();
+            }
+        }
+    }
+
 }
@@ -0,0 +1,116 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.util;
+
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.EdgeWeightType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * {@link EdgeWeights} computed from the node coordinates when they are asked for, so that no
+ * dimension x dimension matrix is allocated.
+ * With a row cache, the rows of nodes whose weights are read one after the other, as when a
+ * graph is built or a node's neighbours are scanned, are computed whole and kept. A row is
+ * kept on the second miss in a row of its first node, so that weights read in no particular
+ * order are each computed on their own instead of replacing rows. The cache is direct-mapped:
+ * row i goes to slot i % rows, replacing the row that was there. Without a row cache, every
+ * weight is computed on its own.
+ */
+public final class CoordinateEdgeWeights implements EdgeWeights {
+
+    /**
+     * A cached row, never changed once published.
+     */
+    private static final class Row {
+        private final int index;
+        private final int[] weights;
+
+        private Row(int index, int[] weights) {
+            this.index = index;
+            this.weights = weights;
+        }
+    }
+
+    private final int dimension;
+    private final IntBinaryOperator kernel;
+    private final EdgeWeightCalculationMethodFactory.RowKernel rowKernel;
+    private final Row[] rows;
+    //the node of the last miss of every slot
+    private final int[] misses;
+
+    /**
+     * @param edgeWeightType type of edge weight
+     * @param nodes the nodes, at least dimension of them
+     * @param dimension the number of nodes
+     * @param cachedRows the number of rows kept, from 0 for no row cache to dimension to keep them all
+     */
+    public CoordinateEdgeWeights(EdgeWeightType edgeWeightType, List<Tsp.Node> nodes, int dimension, int cachedRows) {
+        if (cachedRows < 0) {
+            throw new IllegalArgumentException("Invalid number of cached rows: " + cachedRows);
+        }
+        final double[] x = new double[dimension];
+        final double[] y = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            x[i] = nodes.get(i).getX();
+            y[i] = nodes.get(i).getY();
+        }
+        this.dimension = dimension;
+        this.kernel = EdgeWeightCalculationMethodFactory.getEdgeWeightKernel(edgeWeightType, x, y);
+        this.rowKernel = EdgeWeightCalculationMethodFactory.getRowKernel(edgeWeightType, x, y);
+        this.rows = new Row[Math.min(cachedRows, dimension)];
+        this.misses = new int[rows.length];
+        Arrays.fill(misses, -1);
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        if (i == j) {
+            return 0;
+        }
+        if (rows.length == 0) {
+            return kernel.applyAsInt(i, j);
+        }
+        //the weights are symmetric, so the row of either node will do
+        Row row = rows[i % rows.length];
+        if (row != null && row.index == i) {
+            return row.weights[j];
+        }
+        row = rows[j % rows.length];
+        if (row != null && row.index == j) {
+            return row.weights[i];
+        }
+        final int slot = i % rows.length;
+        if (misses[slot] != i) {
+            misses[slot] = i;
+            return kernel.applyAsInt(i, j);
+        }
+        final int[] weights = new int[dimension];
+        rowKernel.fillRow(i, weights, 0);
+        weights[i] = 0;
+        //two threads missing the same row both compute it, and either copy is kept
+        rows[slot] = new Row(i, weights);
+        return weights[j];
+    }
+}
@@ -19,16 +19,42 @@ import Source.TSPLib.datamodel.tsp.Tsp;
 import Source.TSPLib.datamodel.types.EdgeWeightType;
 import Source.TSPLib.exception.TspLibException;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
 
 /**
  * This class provides edge weight calculation methods for {@link EdgeWeightType}.
+ * Besides the per node {@link BiFunction}s, it provides primitive kernels over
+ * coordinate arrays, used to build whole distance matrices.
  *
  * @author Maciej Laskowski
  */
 public class EdgeWeightCalculationMethodFactory {
 
     private static final double EARTH_RADIUS = 6378.388;
+    //below this many nodes the matrix is built on the calling thread
+    private static final int PARALLEL_DIMENSION = 1024;
+    //row blocks per thread, so that uneven blocks balance out
+    private static final int BLOCKS_PER_THREAD = 4;
+    //rows computed before they are mirrored into the lower triangle
+    private static final int MIRROR_TILE = 32;
+    //VectorDistanceKernels.forType, found when the classes were built with -Pvector and the incubator
+    //module is resolved, unless -Dtsplib.vector=false; null otherwise
+    private static final Method VECTOR_KERNELS = findVectorKernels();
+
+    /**
+     * Computes the weights of row i from column from to the end of the row.
+     */
+    interface RowKernel {
+        void fillRow(int i, int[] row, int from);
+    }
 
     /**
      * Returns {@link BiFunction} with edge weight calculation method for
@@ -57,6 +83,210 @@ public class EdgeWeightCalculationMethodFactory {
         }
     }
 
+    /**
+     * Builds the symmetric distance matrix of the first dimension nodes. The kernel of the
+     * edge weight type is resolved once and only the upper triangle is computed. Matrices of
+     * at least {@value #PARALLEL_DIMENSION} nodes are built on the common pool.
+     *
+     * @param edgeWeightType type of edge weight
+     * @param nodes the nodes, at least dimension of them
+     * @param dimension the number of nodes in the matrix
+     * @return the dimension x dimension matrix of edge weights
+     */
+    public static int[][] createMatrix(EdgeWeightType edgeWeightType, List<Tsp.Node> nodes, int dimension) {
+        return createMatrix(edgeWeightType, nodes, dimension,
+                dimension >= PARALLEL_DIMENSION ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Builds the symmetric distance matrix of the first dimension nodes, splitting the rows
+     * into blocks of about the same number of pairs, computed on the pool. Each block also
+     * writes the mirrored cells of its rows, so no cell is written by two blocks.
+     * When the classes were built with -Pvector and the JVM runs with --add-modules jdk.incubator.vector,
+     * the rows of EUC_2D, CEIL_2D, MAN_2D and MAX_2D matrices are computed with vector instructions,
+     * giving the same weights.
+     *
+     * @param edgeWeightType type of edge weight
+     * @param nodes the nodes, at least dimension of them
+     * @param dimension the number of nodes in the matrix
+     * @param pool the pool the rows are computed on, or null to compute them on the calling thread
+     * @return the dimension x dimension matrix of edge weights
+     */
+    public static int[][] createMatrix(EdgeWeightType edgeWeightType, List<Tsp.Node> nodes, int dimension,
+                                       ForkJoinPool pool) {
+        final double[] x = new double[dimension];
+        final double[] y = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            x[i] = nodes.get(i).getX();
+            y[i] = nodes.get(i).getY();
+        }
+        final RowKernel kernel = getRowKernel(edgeWeightType, x, y);
+        final int[][] matrix = new int[dimension][dimension];
+        if (pool == null || pool.getParallelism() < 2 || dimension < 2) {
+            fillRows(kernel, matrix, 0, dimension);
+            return matrix;
+        }
+
+        //contiguous row blocks of about the same number of pairs: the first rows are the longest
+        final int blocks = Math.min(pool.getParallelism() * BLOCKS_PER_THREAD, dimension);
+        final long pairs = (long) dimension * (dimension - 1) / 2;
+        final List<Callable<Void>> tasks = new ArrayList<>(blocks);
+        long done = 0;
+        int from = 0;
+        for (int row = 0; row < dimension; row++) {
+            done += dimension - 1 - row;
+            if (done * blocks >= pairs * (tasks.size() + 1) || row == dimension - 1) {
+                final int start = from;
+                final int end = row + 1;
+                tasks.add(() -> {
+                    fillRows(kernel, matrix, start, end);
+                    return null;
+                });
+                from = end;
+            }
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TspLibException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TspLibException("Interrupted while computing edge weights");
+        }
+        return matrix;
+    }
+
+    private static void fillRows(RowKernel kernel, int[][] matrix, int from, int to) {
+        for (int tile = from; tile < to; tile += MIRROR_TILE) {
+            final int tileEnd = Math.min(tile + MIRROR_TILE, to);
+            for (int i = tile; i < tileEnd; i++) {
+                kernel.fillRow(i, matrix[i], i + 1);
+            }
+            //mirror the rows of the tile into a short run of every row below, rather than one
+            //cell of every row below per row
+            for (int j = tile + 1; j < matrix.length; j++) {
+                final int[] mirrored = matrix[j];
+                final int end = Math.min(tileEnd, j);
+                for (int i = tile; i < end; i++) {
+                    mirrored[i] = matrix[i][j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the vector kernels, which the default build leaves out so that it does not depend
+     * on the incubator module.
+     */
+    private static Method findVectorKernels() {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                || "false".equalsIgnoreCase(System.getProperty("tsplib.vector"))) {
+            return null;
+        }
+        try {
+            return Class.forName("Source.TSPLib.util.VectorDistanceKernels").getDeclaredMethod("forType",
+                    EdgeWeightType.class, double[].class, double[].class, IntBinaryOperator.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether the distance matrices are computed with the vector kernels.
+     *
+     * @return True if the vector kernels were compiled, the incubator module is resolved and -Dtsplib.vector is not false.
+     */
+    static boolean usesVectorKernels() {
+        return VECTOR_KERNELS != null;
+    }
+
+    static RowKernel getRowKernel(EdgeWeightType edgeWeightType, double[] x, double[] y) {
+        final IntBinaryOperator kernel = getEdgeWeightKernel(edgeWeightType, x, y);
+        if (VECTOR_KERNELS != null) {
+            final RowKernel vectorKernel;
+            try {
+                vectorKernel = (RowKernel) VECTOR_KERNELS.invoke(null, edgeWeightType, x, y, kernel);
+            } catch (ReflectiveOperationException e) {
+                throw new TspLibException("Could not create the vector kernels: " + e);
+            }
+            if (vectorKernel != null) {
+                return vectorKernel;
+            }
+        }
+        return (i, row, from) -> {
+            for (int j = from; j < row.length; j++) {
+                row[j] = kernel.applyAsInt(i, j);
+            }
+        };
+    }
+
+    /**
+     * Returns the edge weight calculation method for specified {@link EdgeWeightType}
+     * as a primitive kernel over node indexes. Anything depending on a single node, like
+     * the GEO coordinates in radians, is computed once per node. The weights are the same
+     * as those of {@link #getEdgeWeightCalculationMethod(EdgeWeightType)}.
+     *
+     * @param edgeWeightType type of edge weight
+     * @param x the x coordinates of the nodes
+     * @param y the y coordinates of the nodes
+     * @return the kernel giving the weight between the nodes of two indexes
+     */
+    public static IntBinaryOperator getEdgeWeightKernel(EdgeWeightType edgeWeightType, double[] x, double[] y) {
+        switch (edgeWeightType) {
+            case EUC_2D:
+                return (i, j) -> {
+                    double xd = x[i] - x[j];
+                    double yd = y[i] - y[j];
+                    return (int) (Math.sqrt(xd * xd + yd * yd) + 0.5);
+                };
+            case GEO:
+                return getGeoKernel(x, y);
+            case MAN_2D:
+                return (i, j) -> (int) (Math.abs(x[i] - x[j]) + Math.abs(y[i] - y[j]));
+            case MAX_2D:
+                return (i, j) -> (int) Math.max(Math.abs(x[i] - x[j]), Math.abs(y[i] - y[j]));
+            case CEIL_2D:
+                return (i, j) -> {
+                    double xd = x[i] - x[j];
+                    double yd = y[i] - y[j];
+                    return (int) Math.ceil(Math.sqrt(xd * xd + yd * yd) + 0.5);
+                };
+            case ATT:
+                return (i, j) -> {
+                    double xd = x[i] - x[j];
+                    double yd = y[i] - y[j];
+                    double rij = Math.sqrt((xd * xd + yd * yd) / 10.0);
+                    double tij = cutDecimal(rij);
+                    return (int) (tij < rij ? tij + 1 : tij);
+                };
+            default:
+                throw new TspLibException(edgeWeightType + " not implemented yet");
+        }
+    }
+
+    private static IntBinaryOperator getGeoKernel(double[] x, double[] y) {
+        final double[] latitude = new double[x.length];
+        final double[] longitude = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            latitude[i] = convertToRadians(y[i]);
+            longitude[i] = convertToRadians(x[i]);
+        }
+        //the cosines stay per pair: expanding them into products of per node sines and cosines
+        //would round differently and move some weights by one
+        return (i, j) -> {
+            double q1 = Math.cos(longitude[i] - longitude[j]);
+            double q2 = Math.cos(latitude[i] - latitude[j]);
+            double q3 = Math.cos(latitude[i] + latitude[j]);
+            return (int) (EARTH_RADIUS *
+                    Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+        };
+    }
+
     private static BiFunction<Tsp.Node, Tsp.Node, Integer> getEuc2dFunction() {
         return (i, j) -> (int) calculateEuc2d(i, j);
     }
@@ -81,8 +311,8 @@ public class EdgeWeightCalculationMethodFactory {
         };
     }
 
-    private static double convertToRadians(Double v) {
-        int deg = v.intValue();
+    private static double convertToRadians(double v) {
+        int deg = (int) v;
         double min = v - deg;
         return Math.PI * (deg + 0.5 * min / 3.0) / 180;
     }
@@ -0,0 +1,123 @@
+package Source.Benchmarks;
+
+import Source.BranchAndBoundTSP.BranchAndBound;
+import Source.BranchAndBoundTSP.IntermediateProblem;
+import Source.BranchAndBoundTSP.SearchListener;
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guards the heap allocation of the sub-problem hot path.
+ * It solves an instance and measures, on every worker thread, the bytes allocated between one
+ * sub-problem being dequeued and the next (or the worker going idle or stopping), i.e. the cost of processing
+ * a sub-problem in ComputeTask.call: its branching, the 1-trees of its children and the queue
+ * operations. Warm-up solves run first, so that the JIT has removed what escape analysis can.
+ * The process exits with status 1 if the mean exceeds the budget, which fails the verify phase
+ * of this module.
+ *
+ * Usage: java -cp benchmarks.jar Source.Benchmarks.AllocationBudget --budget-bytes=N
+ * [--instance=uniform-12-1] [--policy=BestFS] [--threads=2] [--warmup=3]
+ */
+public class AllocationBudget {
+
+    /**
+     * Measures allocations per sub-problem using the allocation counter of the current thread.
+     */
+    static class AllocationListener implements SearchListener {
+        private final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final List<long[]> allCounters = new CopyOnWriteArrayList<>();
+        //{allocated bytes when the current sub-problem was dequeued (-1 if none), total bytes, sub-problems}
+        private final ThreadLocal<long[]> counters = ThreadLocal.withInitial(() -> {
+            long[] threadCounters = {-1, 0, 0};
+            allCounters.add(threadCounters);
+            return threadCounters;
+        });
+
+        @Override
+        public void onDequeue(IntermediateProblem problem) {
+            long[] threadCounters = counters.get();
+            long now = threads.getCurrentThreadAllocatedBytes();
+            close(threadCounters, now);
+            threadCounters[0] = now;
+        }
+
+        @Override
+        public void onWorkerIdle(long idleNanos) {
+            long[] threadCounters = counters.get();
+            close(threadCounters, threads.getCurrentThreadAllocatedBytes());
+            threadCounters[0] = -1;
+        }
+
+        //a worker stopping right after its last sub-problem never goes idle
+        @Override
+        public void onWorkerExit() {
+            onWorkerIdle(0);
+        }
+
+        private static void close(long[] threadCounters, long now) {
+            if (threadCounters[0] >= 0) {
+                threadCounters[1] += now - threadCounters[0];
+                threadCounters[2]++;
+            }
+        }
+
+        long totalBytes() {
+            return allCounters.stream().mapToLong(c -> c[1]).sum();
+        }
+
+        long subProblems() {
+            return allCounters.stream().mapToLong(c -> c[2]).sum();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options are given as --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!options.containsKey("budget-bytes")) {
+            throw new IllegalArgumentException("--budget-bytes is required");
+        }
+        long budget = Long.parseLong(options.get("budget-bytes"));
+        String instance = options.getOrDefault("instance", "uniform-12-1");
+        String policy = options.getOrDefault("policy", "BestFS");
+        int threads = Integer.parseInt(options.getOrDefault("threads", "2"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+
+        Graph graph = instance.endsWith(".tsp") ? TSPLIBGraphGenerator.createGraph(instance) : BenchmarkInstances.load(instance);
+        for (int i = 0; i < warmup; i++) {
+            solve(graph, policy, threads, null);
+        }
+        AllocationListener listener = new AllocationListener();
+        solve(graph, policy, threads, listener);
+
+        long subProblems = listener.subProblems();
+        double bytesPerSubProblem = subProblems == 0 ? 0 : (double) listener.totalBytes() / subProblems;
+        System.out.printf(Locale.ROOT, "%s %s %d threads: %d sub-problems, %.0f bytes allocated per sub-problem (budget %d)%n",
+                instance, policy, threads, subProblems, bytesPerSubProblem, budget);
+        if (bytesPerSubProblem > budget) {
+            System.out.println("Allocation budget exceeded");
+            System.exit(1);
+        }
+    }
+
+    private static void solve(Graph graph, String policy, int threads, SearchListener listener) throws Exception {
+        BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy);
+        branchAndBound.IfErrorThenTerminate = false;
+        if (listener != null) {
+            branchAndBound.addSearchListener(listener);
+        }
+        branchAndBound.processTask(false, threads);
+    }
+}
@@ -0,0 +1,76 @@
+package Source.Benchmarks;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.generator.InstanceGenerator;
+
+import java.io.File;
+
+/**
+ * Loads the instances the benchmarks run on.
+ * The benchmarks default to synthetic instances from {@link InstanceGenerator}, which need no files:
+ * they are named uniform-n-seed, clustered-n-seed (with n/10 clusters), grid-rows-columns-seed and
+ * circle-n-seed. TSPLIB instances are not part of the repository: they are selected by name, e.g.
+ * -p instance=burma14, and read from the directory named by the tsplib.dir system property
+ * (default "TSPLIB"), e.g. -jvmArgs -Dtsplib.dir=/data/tsplib.
+ */
+public final class BenchmarkInstances {
+
+    private BenchmarkInstances() {
+    }
+
+    /**
+     * Builds the graph of an instance.
+     *
+     * @param name The instance name, e.g. burma14, looked up as name.tsp or name.tsp.gz, or a synthetic instance name.
+     * @return The graph of the instance.
+     * @throws IllegalStateException If the instance file does not exist.
+     */
+    public static Graph load(String name) {
+        Tsp synthetic = generate(name);
+        if (synthetic != null) {
+            return TSPLIBGraphGenerator.createGraph(synthetic);
+        }
+        File file = new File(System.getProperty("tsplib.dir", "TSPLIB"), name + ".tsp");
+        File compressed = new File(file.getPath() + ".gz");
+        if (!file.isFile() && compressed.isFile()) {
+            file = compressed;
+        }
+        if (!file.isFile()) {
+            throw new IllegalStateException("TSPLIB instance not found: " + file.getAbsolutePath()
+                    + " (set -Dtsplib.dir to the directory holding the .tsp files)");
+        }
+        return TSPLIBGraphGenerator.createGraph(file.getAbsolutePath());
+    }
+
+    /**
+     * Generates a synthetic instance.
+     *
+     * @param name The synthetic instance name, e.g. uniform-100-1.
+     * @return The instance, or null if the name is not a synthetic instance name.
+     */
+    static Tsp generate(String name) {
+        String[] parts = name.split("-");
+        int[] values = new int[parts.length - 1];
+        try {
+            for (int i = 1; i < parts.length; i++) {
+                values[i - 1] = Integer.parseInt(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        switch (parts[0] + "/" + values.length) {
+            case "uniform/2":
+                return InstanceGenerator.uniform(values[0], 10000, values[1]);
+            case "clustered/2":
+                return InstanceGenerator.clustered(values[0], Math.max(1, values[0] / 10), 10000, values[1]);
+            case "grid/3":
+                return InstanceGenerator.grid(values[0], values[1], values[2]);
+            case "circle/2":
+                return InstanceGenerator.circle(values[0], values[1]);
+            default:
+                return null;
+        }
+    }
+}
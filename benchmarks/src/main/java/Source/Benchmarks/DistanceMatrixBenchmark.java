@@ -0,0 +1,80 @@
+package Source.Benchmarks;
+
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.EdgeWeightType;
+import Source.TSPLib.util.CoordinateEdgeWeights;
+import Source.TSPLib.util.EdgeWeightCalculationMethodFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the distance matrix of a coordinate instance, as done when a tsp file is loaded.
+ * GEO nodes are random latitudes and longitudes in the DDD.MM format of TSPLIB.
+ * createMatrix uses the common pool from 1024 nodes on, createMatrixSequentially never does,
+ * and createMatrixWithVectorKernels runs with the incubating Vector API module, which only changes
+ * the kernels when the solver was installed with mvn -Pvector.
+ * sumWeightsFromOracle reads every weight once from {@link CoordinateEdgeWeights} without a
+ * row cache, as an instance too large for a matrix is read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class DistanceMatrixBenchmark {
+
+    @Param({"EUC_2D", "CEIL_2D", "GEO", "ATT"})
+    public EdgeWeightType edgeWeightType;
+
+    @Param({"1000", "2000"})
+    public int dimension;
+
+    private List<Tsp.Node> nodes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(dimension);
+        nodes = new ArrayList<>(dimension);
+        for (int id = 1; id <= dimension; id++) {
+            if (edgeWeightType == EdgeWeightType.GEO) {
+                nodes.add(new Tsp.Node(id, random.nextInt(180) - 90 + random.nextInt(60) / 100.0,
+                        random.nextInt(360) - 180 + random.nextInt(60) / 100.0));
+            } else {
+                nodes.add(new Tsp.Node(id, random.nextDouble() * 10000, random.nextDouble() * 10000));
+            }
+        }
+    }
+
+    @Benchmark
+    public int[][] createMatrix() {
+        return EdgeWeightCalculationMethodFactory.createMatrix(edgeWeightType, nodes, dimension);
+    }
+
+    @Benchmark
+    public int[][] createMatrixSequentially() {
+        return EdgeWeightCalculationMethodFactory.createMatrix(edgeWeightType, nodes, dimension, null);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgs = {"-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+    public int[][] createMatrixWithVectorKernels() {
+        return EdgeWeightCalculationMethodFactory.createMatrix(edgeWeightType, nodes, dimension);
+    }
+
+    @Benchmark
+    public long sumWeightsFromOracle() {
+        CoordinateEdgeWeights weights = new CoordinateEdgeWeights(edgeWeightType, nodes, dimension, 0);
+        long sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            for (int j = i + 1; j < dimension; j++) {
+                sum += weights.getWeight(i, j);
+            }
+        }
+        return sum;
+    }
+}
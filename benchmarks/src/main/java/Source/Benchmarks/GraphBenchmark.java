@@ -0,0 +1,40 @@
+package Source.Benchmarks;
+
+import Source.Datastructures.Graph.Edge;
+import Source.Datastructures.Graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph operations performed for every sub-problem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    @Param({"uniform-14-1", "clustered-16-1", "uniform-29-1", "clustered-52-1"})
+    public String instance;
+
+    private Graph graph;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkInstances.load(instance);
+    }
+
+    @Benchmark
+    public Graph cloneGraph() {
+        return graph.clone();
+    }
+
+    @Benchmark
+    public List<Edge> getEdges() {
+        return graph.getEdges();
+    }
+}
@@ -0,0 +1,35 @@
+package Source.Benchmarks;
+
+import Source.BranchAndBoundTSP.IntermediateProblem;
+import Source.Datastructures.Graph.Exceptions.NodeNotFoundExceptionGraph;
+import Source.Datastructures.Graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of a sub-problem, i.e. the computation of its 1-tree bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntermediateProblemBenchmark {
+
+    @Param({"uniform-14-1", "clustered-16-1", "uniform-29-1", "clustered-52-1"})
+    public String instance;
+
+    private Graph graph;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkInstances.load(instance);
+    }
+
+    @Benchmark
+    public IntermediateProblem rootProblem() throws NodeNotFoundExceptionGraph {
+        return new IntermediateProblem(graph, graph.getNodeById(1));
+    }
+}
@@ -0,0 +1,49 @@
+package Source.Benchmarks;
+
+import Source.Datastructures.Graph.Edge;
+import Source.Datastructures.Graph.Graph;
+import Source.Datastructures.MST.Kruskal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimum spanning tree computations; MSTFor1Tree runs on the graph without the special node,
+ * as the 1-tree does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KruskalBenchmark {
+
+    private static final Comparator<Edge> BY_WEIGHT = Comparator.comparingDouble(Edge::getWeight);
+
+    @Param({"uniform-14-1", "clustered-16-1", "uniform-29-1", "clustered-52-1"})
+    public String instance;
+
+    private Graph graph;
+    private Graph graphWithoutSpecialNode;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkInstances.load(instance);
+        graphWithoutSpecialNode = graph.clone();
+        graphWithoutSpecialNode.deleteNode(graphWithoutSpecialNode.getNodeById(1));
+    }
+
+    @Benchmark
+    public List<Edge> mst() {
+        return Kruskal.Mst(graph);
+    }
+
+    @Benchmark
+    public Graph mstFor1Tree() {
+        return Kruskal.MSTFor1Tree(graphWithoutSpecialNode, BY_WEIGHT, Collections.emptyList(), Collections.emptyList());
+    }
+}
@@ -0,0 +1,99 @@
+package Source.Benchmarks;
+
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.parser.TspCache;
+import Source.TSPLib.parser.TspLibParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of large TSPLIB files: an explicit UPPER_ROW matrix and EUC_2D coordinates.
+ * The files are written to a temporary directory during the setup. The binary cache is turned off
+ * for the parsing benchmarks and loaded directly by loadExplicitMatrixFromCache, or mapped off
+ * the heap by mapExplicitMatrixFromCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-Dtsplib.cache=false"})
+public class ParserBenchmark {
+
+    @Param({"1000", "3000"})
+    public int dimension;
+
+    private Path directory;
+    private Path explicitFile;
+    private Path coordinatesFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("parser-benchmark");
+        explicitFile = directory.resolve("explicit" + dimension + ".tsp");
+        coordinatesFile = directory.resolve("coordinates" + dimension + ".tsp");
+        Random random = new Random(dimension);
+        try (Writer writer = Files.newBufferedWriter(explicitFile)) {
+            writer.write("NAME : explicit" + dimension + "\nTYPE : TSP\nDIMENSION : " + dimension
+                    + "\nEDGE_WEIGHT_TYPE : EXPLICIT\nEDGE_WEIGHT_FORMAT : UPPER_ROW\nEDGE_WEIGHT_SECTION\n");
+            for (int i = 0; i < dimension - 1; i++) {
+                StringBuilder row = new StringBuilder();
+                for (int j = i + 1; j < dimension; j++) {
+                    row.append(' ').append(1 + random.nextInt(99999));
+                }
+                writer.write(row.append('\n').toString());
+            }
+            writer.write("EOF\n");
+        }
+        try (Writer writer = Files.newBufferedWriter(coordinatesFile)) {
+            writer.write("NAME : coordinates" + dimension + "\nTYPE : TSP\nDIMENSION : " + dimension
+                    + "\nEDGE_WEIGHT_TYPE : EUC_2D\nNODE_COORD_SECTION\n");
+            for (int i = 1; i <= dimension; i++) {
+                writer.write(i + " " + random.nextDouble() * 10000 + " " + random.nextDouble() * 10000 + "\n");
+            }
+            writer.write("EOF\n");
+        }
+        TspCache.write(explicitFile, TspLibParser.parseTsp(explicitFile.toString()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(TspCache.cachePath(explicitFile));
+        Files.delete(explicitFile);
+        Files.delete(coordinatesFile);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Tsp parseExplicitMatrix() {
+        return TspLibParser.parseTsp(explicitFile.toString());
+    }
+
+    @Benchmark
+    public Tsp parseExplicitMatrixInParallel() {
+        return TspLibParser.parseTsp(explicitFile.toString(), ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Tsp loadExplicitMatrixFromCache() {
+        return TspCache.read(explicitFile);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgs = {"-Xmx4g", "-Dtsplib.cache=false", "-Dtsplib.offHeapWeights=true"})
+    public Tsp mapExplicitMatrixFromCache() {
+        return TspCache.read(explicitFile);
+    }
+
+    @Benchmark
+    public Tsp parseCoordinates() {
+        return TspLibParser.parseTsp(coordinatesFile.toString());
+    }
+}
@@ -0,0 +1,180 @@
+package Source.Benchmarks;
+
+import Source.BranchAndBoundTSP.BranchAndBound;
+import Source.BranchAndBoundTSP.Solution;
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures how the solver scales with the number of threads.
+ * Every instance is solved under each policy with 1, 2, 4, ... up to the maximum thread count
+ * (the maximum itself is always included), after some warm-up solves. For every configuration
+ * the report gives the median wall time, the mean number of nodes, nodes/sec, the speedup and
+ * parallel efficiency against the single-threaded run of the same policy, and the search overhead,
+ * i.e. the extra nodes explored compared with the single-threaded run.
+ *
+ * Usage: java -cp benchmarks.jar Source.Benchmarks.ScalingBenchmark [--instances=uniform-10-1,circle-16-1]
+ * [--policies=BestFS,DFS] [--max-threads=N] [--warmup=2] [--repetitions=5] [--format=csv|json] [--output=file]
+ * Instances are TSPLIB or synthetic names resolved through {@link BenchmarkInstances}, or paths to .tsp files.
+ */
+public class ScalingBenchmark {
+
+    /**
+     * The measurements of one instance, policy and thread count.
+     */
+    static class Result {
+        final String instance;
+        final String policy;
+        final int threads;
+        final int cost;
+        final double medianMillis;
+        final double meanNodes;
+        double speedup = Double.NaN;
+        double efficiency = Double.NaN;
+        double searchOverhead = Double.NaN;
+
+        Result(String instance, String policy, int threads, int cost, double medianMillis, double meanNodes) {
+            this.instance = instance;
+            this.policy = policy;
+            this.threads = threads;
+            this.cost = cost;
+            this.medianMillis = medianMillis;
+            this.meanNodes = meanNodes;
+        }
+
+        double nodesPerSecond() {
+            return medianMillis == 0 ? 0 : meanNodes * 1000 / medianMillis;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        List<String> instances = Arrays.asList(options.getOrDefault("instances", "uniform-10-1,circle-16-1").split(","));
+        List<String> policies = Arrays.asList(options.getOrDefault("policies", "BestFS,DFS").split(","));
+        int maxThreads = Integer.parseInt(options.getOrDefault("max-threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "2"));
+        int repetitions = Integer.parseInt(options.getOrDefault("repetitions", "5"));
+        if (maxThreads < 1 || warmup < 0 || repetitions < 1) {
+            throw new IllegalArgumentException("max-threads and repetitions must be positive, warmup not negative");
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (String instance : instances) {
+            Graph graph = loadInstance(instance);
+            for (String policy : policies) {
+                Result sequential = null;
+                for (int threads : threadCounts(maxThreads)) {
+                    Result result = measure(instance, graph, policy, threads, warmup, repetitions);
+                    if (sequential == null) {
+                        sequential = result;
+                    }
+                    result.speedup = sequential.medianMillis / result.medianMillis;
+                    result.efficiency = result.speedup / threads;
+                    result.searchOverhead = result.meanNodes / sequential.meanNodes - 1;
+                    System.err.printf(Locale.ROOT, "%s %s %d threads: %.1f ms, speedup %.2f%n",
+                            instance, policy, threads, result.medianMillis, result.speedup);
+                    results.add(result);
+                }
+            }
+        }
+
+        String report = "json".equals(options.getOrDefault("format", "csv")) ? toJson(results) : toCsv(results);
+        if (options.containsKey("output")) {
+            Files.writeString(Path.of(options.get("output")), report);
+        } else {
+            System.out.print(report);
+        }
+    }
+
+    /**
+     * Solves an instance repeatedly with one configuration.
+     *
+     * @return The median time and mean node count of the measured solves.
+     */
+    static Result measure(String instance, Graph graph, String policy, int threads, int warmup, int repetitions) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            solve(graph, policy, threads);
+        }
+        double[] millis = new double[repetitions];
+        long nodes = 0;
+        int cost = 0;
+        for (int i = 0; i < repetitions; i++) {
+            long start = System.nanoTime();
+            Solution solution = solve(graph, policy, threads);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            nodes += solution.getNodeCountTotal();
+            cost = solution.getValueOfCost();
+        }
+        Arrays.sort(millis);
+        double median = repetitions % 2 == 1 ? millis[repetitions / 2]
+                : (millis[repetitions / 2 - 1] + millis[repetitions / 2]) / 2;
+        return new Result(instance, policy, threads, cost, median, (double) nodes / repetitions);
+    }
+
+    private static Solution solve(Graph graph, String policy, int threads) throws Exception {
+        BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy);
+        branchAndBound.IfErrorThenTerminate = false;
+        return branchAndBound.processTask(false, threads);
+    }
+
+    /**
+     * Returns 1, 2, 4, ... below maxThreads, followed by maxThreads.
+     */
+    static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(maxThreads);
+        return counts;
+    }
+
+    private static Graph loadInstance(String instance) {
+        return instance.endsWith(".tsp") ? TSPLIBGraphGenerator.createGraph(instance) : BenchmarkInstances.load(instance);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options are given as --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    static String toCsv(List<Result> results) {
+        StringBuilder csv = new StringBuilder("instance,policy,threads,cost,median_ms,nodes,nodes_per_sec,speedup,efficiency,search_overhead\n");
+        for (Result r : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.1f,%.1f,%.4f,%.4f,%.4f%n",
+                    r.instance, r.policy, r.threads, r.cost, r.medianMillis, r.meanNodes, r.nodesPerSecond(),
+                    r.speedup, r.efficiency, r.searchOverhead));
+        }
+        return csv.toString();
+    }
+
+    static String toJson(List<Result> results) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append(String.format(Locale.ROOT,
+                    "  {\"instance\": \"%s\", \"policy\": \"%s\", \"threads\": %d, \"cost\": %d, \"medianMillis\": %.3f, "
+                            + "\"nodes\": %.1f, \"nodesPerSecond\": %.1f, \"speedup\": %.4f, \"efficiency\": %.4f, \"searchOverhead\": %.4f}%s%n",
+                    r.instance.replace("\\", "\\\\").replace("\"", "\\\""), r.policy, r.threads, r.cost, r.medianMillis,
+                    r.meanNodes, r.nodesPerSecond(), r.speedup, r.efficiency, r.searchOverhead,
+                    i < results.size() - 1 ? "," : ""));
+        }
+        return json.append("]\n").toString();
+    }
+}
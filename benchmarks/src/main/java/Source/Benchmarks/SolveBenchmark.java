@@ -0,0 +1,47 @@
+package Source.Benchmarks;
+
+import Source.BranchAndBoundTSP.BranchAndBound;
+import Source.BranchAndBoundTSP.Exceptions.NotSolvableCaseException;
+import Source.BranchAndBoundTSP.Solution;
+import Source.Datastructures.Graph.Exceptions.NodeNotFoundExceptionGraph;
+import Source.Datastructures.Graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete solves across policies and thread counts. Only small synthetic instances are solved by
+ * default, larger ones can take minutes per run: add them with e.g. -p instance=uniform-12-1, or
+ * TSPLIB instances with -p instance=burma14,ulysses16 and -Dtsplib.dir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolveBenchmark {
+
+    @Param({"uniform-10-1", "circle-16-1"})
+    public String instance;
+
+    @Param({"BestFS", "DFS"})
+    public String policy;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private Graph graph;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkInstances.load(instance);
+    }
+
+    @Benchmark
+    public Solution processTask() throws NotSolvableCaseException, NodeNotFoundExceptionGraph {
+        BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy);
+        branchAndBound.IfErrorThenTerminate = false;
+        return branchAndBound.processTask(false, threads);
+    }
+}
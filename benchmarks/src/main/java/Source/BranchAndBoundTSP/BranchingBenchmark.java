@@ -0,0 +1,44 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Benchmarks.BenchmarkInstances;
+import Source.Datastructures.Graph.Exceptions.NodeNotFoundExceptionGraph;
+import Source.Datastructures.Graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Branching of the root problem, children construction included. It lives in the solver's
+ * package because generateBranches is package-private. Every call starts by swapping in an empty
+ * frontier, which only allocates an empty queue, so that the children of earlier calls do not pile up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BranchingBenchmark {
+
+    @Param({"uniform-14-1", "clustered-16-1", "uniform-29-1", "clustered-52-1"})
+    public String instance;
+
+    @Param({"BestFS", "DFS"})
+    public String policy;
+
+    private BranchAndBound branchAndBound;
+    private IntermediateProblem rootProblem;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NodeNotFoundExceptionGraph {
+        Graph graph = BenchmarkInstances.load(instance);
+        branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), 1, policy);
+        rootProblem = new IntermediateProblem(graph, graph.getNodeById(1));
+    }
+
+    @Benchmark
+    public int generateBranches() throws NodeNotFoundExceptionGraph {
+        branchAndBound.clearFrontier();
+        return branchAndBound.generateBranches(rootProblem);
+    }
+}
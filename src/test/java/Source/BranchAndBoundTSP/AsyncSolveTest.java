@@ -0,0 +1,90 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The asynchronous solve completes with the reason the search stopped: Completed when the frontier
+ * is exhausted, TimeLimitReached at the deadline with a bound below the tour, and cancelling the
+ * future stops every worker.
+ */
+class AsyncSolveTest {
+
+    private static final int THREADS = 2;
+
+    @Test
+    void completesWithTheOptimum() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.circle(12, 1));
+        try (BranchAndBound branchAndBound = solver(graph)) {
+            final Solution solution = branchAndBound.solve(new SolveOptions().withThreads(THREADS))
+                    .get(60, TimeUnit.SECONDS);
+
+            assertEquals(Solution.TerminationReason.Completed, solution.getTerminationReason());
+            assertEquals(InstanceGenerator.circleOptimum(12), solution.getValueOfCost());
+            assertEquals(0, solution.getOptimalityGap());
+        }
+    }
+
+    @Test
+    void stopsAtTheTimeLimit() throws Exception {
+        //far too large to be solved within the limit
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(30, 1000, 1));
+        try (BranchAndBound branchAndBound = solver(graph)) {
+            final long start = System.nanoTime();
+            final Solution solution = branchAndBound.solve(new SolveOptions().withThreads(THREADS)
+                    .withTimeLimit(Duration.ofMillis(300))).get(60, TimeUnit.SECONDS);
+
+            assertEquals(Solution.TerminationReason.TimeLimitReached, solution.getTerminationReason());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+            if (solution.getValueOfCost() != Integer.MAX_VALUE) {
+                assertTrue(solution.getLowerBound() <= solution.getValueOfCost());
+                assertTrue(solution.getOptimalityGap() >= 0 && solution.getOptimalityGap() <= 1);
+            }
+        }
+    }
+
+    @Test
+    void cancellingTheFutureStopsTheWorkers() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(30, 1000, 2));
+        final CountDownLatch dequeued = new CountDownLatch(1);
+        final CountDownLatch exited = new CountDownLatch(THREADS);
+        try (BranchAndBound branchAndBound = solver(graph)) {
+            branchAndBound.addSearchListener(new SearchListener() {
+                @Override
+                public void onDequeue(IntermediateProblem problem) {
+                    dequeued.countDown();
+                }
+
+                @Override
+                public void onWorkerExit() {
+                    exited.countDown();
+                }
+            });
+            final CompletableFuture<Solution> result = branchAndBound.solve(new SolveOptions().withThreads(THREADS));
+            assertTrue(dequeued.await(60, TimeUnit.SECONDS));
+
+            assertTrue(result.cancel(true));
+
+            assertThrows(CancellationException.class, result::join);
+            assertTrue(exited.await(30, TimeUnit.SECONDS), "the workers kept running after the cancellation");
+        }
+    }
+
+    private static BranchAndBound solver(Graph graph) {
+        final BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), THREADS, "BestFS");
+        branchAndBound.IfErrorThenTerminate = false;
+        return branchAndBound;
+    }
+}
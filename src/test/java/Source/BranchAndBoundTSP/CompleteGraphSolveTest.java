@@ -0,0 +1,71 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.CompleteGraph;
+import Source.Datastructures.Graph.Graph;
+import Source.Datastructures.Graph.GraphNode;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.generator.InstanceGenerator;
+import Source.TSPLib.util.CoordinateEdgeWeights;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Instances without a weight matrix are solved on a {@link CompleteGraph} reading the weights from
+ * the instance, with the same bounds and optima as on the graph holding every edge.
+ */
+class CompleteGraphSolveTest {
+
+    @Test
+    void solvesCoordinateInstanceAboveDenseDimension() throws Exception {
+        //above the 4096 nodes of tsplib.denseDimension: no matrix, the weights come from the coordinates
+        final int dimension = 5000;
+        final Tsp tsp = InstanceGenerator.circle(dimension, 3);
+        assertInstanceOf(CoordinateEdgeWeights.class, tsp.getEdgeWeights().orElseThrow());
+        final Graph graph = TSPLIBGraphGenerator.createGraph(tsp);
+        assertInstanceOf(CompleteGraph.class, graph);
+
+        final Solution solution = solve(graph, 2);
+
+        assertEquals(InstanceGenerator.circleOptimum(dimension), solution.getValueOfCost());
+        assertEquals(Solution.TerminationReason.Completed, solution.getTerminationReason());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4})
+    void sameBoundsAndOptimumAsTheGraphOfEveryEdge(long seed) throws Exception {
+        final Tsp tsp = InstanceGenerator.uniform(10, 1000, seed);
+        final Graph edges = TSPLIBGraphGenerator.createGraph(tsp);
+        final CompleteGraph oracle = completeGraph(tsp.getEdgeWeights().orElseThrow());
+
+        assertEquals(new IntermediateProblem(edges, edges.getNodeById(1)).getBound(),
+                new IntermediateProblem(oracle, oracle.getNodeById(1)).getBound());
+        assertEquals(solve(edges, 1).getValueOfCost(), solve(oracle, 1).getValueOfCost());
+    }
+
+    private static Solution solve(Graph graph, int threads) throws Exception {
+        final BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, "BestFS");
+        branchAndBound.IfErrorThenTerminate = false;
+        try {
+            return branchAndBound.processTask(false, threads);
+        } finally {
+            branchAndBound.close();
+        }
+    }
+
+    private static CompleteGraph completeGraph(EdgeWeights edgeWeights) {
+        final List<GraphNode> nodes = new ArrayList<>();
+        for (int id = 1; id <= edgeWeights.getDimension(); id++) {
+            nodes.add(new TSPLIBGraphGenerator.NodeGraph(id, 0, 0));
+        }
+        return new CompleteGraph(nodes, edgeWeights::getWeight);
+    }
+}
@@ -0,0 +1,107 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Elastic workers are started while the frontier grows and retire when they find it empty,
+ * never leaving the bounds given to setElasticWorkers, and find the same optimum as a fixed pool.
+ */
+class ElasticWorkersTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BestFS", "DFS"})
+    void spawnsAndRetiresWithinTheBounds(String policy) throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(10, 1000, 5));
+        final int expected = solve(graph, policy, 1).getValueOfCost();
+
+        final AtomicInteger retired = new AtomicInteger();
+        final Solution solution;
+        try (BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), 1, policy)) {
+            branchAndBound.IfErrorThenTerminate = false;
+            branchAndBound.setElasticWorkers(1, 4);
+            branchAndBound.addSearchListener(new RetirementListener(branchAndBound, retired));
+            solution = branchAndBound.processTask(false, 1);
+            assertEquals(0, branchAndBound.getActiveWorkerCount());
+        }
+
+        assertEquals(expected, solution.getValueOfCost());
+        assertTrue(solution.getPeakWorkerCount() > 1, "no worker was started");
+        assertTrue(solution.getPeakWorkerCount() <= 4);
+        assertTrue(retired.get() >= 1, "no worker retired");
+        assertTrue(solution.getWorkerUtilisation() >= 0 && solution.getWorkerUtilisation() <= 1);
+    }
+
+    @Test
+    void fixedPoolKeepsTheThreadCount() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(9, 1000, 2));
+        final Solution solution = solve(graph, "BestFS", 3);
+
+        assertEquals(3, solution.getPeakWorkerCount());
+    }
+
+    @Test
+    void rejectsInvalidBounds() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(5, 1000, 1));
+        try (BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), 1, "BestFS")) {
+            assertThrows(IllegalArgumentException.class, () -> branchAndBound.setElasticWorkers(0, 2));
+            assertThrows(IllegalArgumentException.class, () -> branchAndBound.setElasticWorkers(3, 2));
+        }
+    }
+
+    private static Solution solve(Graph graph, String policy, int threads) throws Exception {
+        try (BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy)) {
+            branchAndBound.IfErrorThenTerminate = false;
+            return branchAndBound.processTask(false, threads);
+        }
+    }
+
+    /**
+     * Holds the first sub-problem dequeued while several workers run until a worker retires: the
+     * others empty the queue meanwhile and, the held sub-problem being open, retire instead of
+     * ending the search. Counts the workers that exit while sub-problems are open.
+     */
+    private static final class RetirementListener implements SearchListener {
+        private final BranchAndBound branchAndBound;
+        private final AtomicInteger retired;
+        private final AtomicBoolean held = new AtomicBoolean();
+        private final CountDownLatch firstRetirement = new CountDownLatch(1);
+
+        RetirementListener(BranchAndBound branchAndBound, AtomicInteger retired) {
+            this.branchAndBound = branchAndBound;
+            this.retired = retired;
+        }
+
+        @Override
+        public void onDequeue(IntermediateProblem problem) {
+            if (branchAndBound.getActiveWorkerCount() > 1 && held.compareAndSet(false, true)) {
+                try {
+                    firstRetirement.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onWorkerExit() {
+            if (branchAndBound.getOpenProblemCount() > 0) {
+                retired.incrementAndGet();
+                firstRetirement.countDown();
+            }
+        }
+    }
+}
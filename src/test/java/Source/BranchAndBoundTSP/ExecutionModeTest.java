@@ -0,0 +1,51 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * VIRTUAL_THREADS solves like PLATFORM_THREADS whatever the runtime; before Java 21 it runs on a
+ * bounded pool of platform threads instead of failing.
+ */
+class ExecutionModeTest {
+
+    @Test
+    void fallsBackToABoundedPlatformPoolWithoutVirtualThreads() throws Exception {
+        final ExecutorService executor = ExecutionMode.VIRTUAL_THREADS.newExecutor(3);
+        try {
+            assertEquals(42, executor.submit(() -> 42).get());
+            if (!ExecutionMode.virtualThreadsAvailable()) {
+                assertEquals(3, assertInstanceOf(ThreadPoolExecutor.class, executor).getMaximumPoolSize());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void virtualThreadsFindTheSameOptimaAsPlatformThreads() throws Exception {
+        final List<Graph> graphs = Arrays.asList(
+                TSPLIBGraphGenerator.createGraph(InstanceGenerator.circle(9, 1)),
+                TSPLIBGraphGenerator.createGraph(InstanceGenerator.grid(3, 3, 2)));
+
+        final List<Solution> platform = BranchAndBound.processBatch(graphs, "BestFS", 2, ExecutionMode.PLATFORM_THREADS);
+        final List<Solution> virtual = BranchAndBound.processBatch(graphs, "BestFS", 2, ExecutionMode.VIRTUAL_THREADS);
+
+        assertEquals(InstanceGenerator.circleOptimum(9), virtual.get(0).getValueOfCost());
+        assertEquals(InstanceGenerator.gridOptimum(3, 3), virtual.get(1).getValueOfCost());
+        for (int i = 0; i < graphs.size(); i++) {
+            assertEquals(platform.get(i).getValueOfCost(), virtual.get(i).getValueOfCost());
+            assertEquals(Solution.TerminationReason.Completed, virtual.get(i).getTerminationReason());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A search with a gap tolerance stops with a tour within the tolerance of a lower bound that does
+ * not exceed the optimum; the lower bound is computed from the frontier and the batches the
+ * workers hold whenever it is read.
+ */
+class GapToleranceTest {
+
+    private static final int ABSOLUTE_GAP = 150;
+
+    @ParameterizedTest
+    @CsvSource({"BestFS, 1", "BestFS, 2", "BestFS, 3", "DFS, 1", "DFS, 2", "DFS, 3"})
+    void stopsWithinTheToleranceOfACertifiedBound(String policy, long seed) throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(10, 1000, seed));
+        final int optimum = solve(graph, "BestFS", 1, 0).getValueOfCost();
+
+        final Solution solution = solve(graph, policy, 4, ABSOLUTE_GAP);
+
+        assertTrue(solution.getValueOfCost() >= optimum);
+        if (solution.getTerminationReason() == Solution.TerminationReason.Completed) {
+            assertEquals(optimum, solution.getValueOfCost());
+        } else {
+            assertEquals(Solution.TerminationReason.GapToleranceReached, solution.getTerminationReason());
+            assertTrue(solution.getLowerBound() <= optimum, "the lower bound exceeds the optimum");
+            assertTrue(solution.getValueOfCost() - solution.getLowerBound() <= ABSOLUTE_GAP);
+        }
+    }
+
+    @Test
+    void lowerBoundIsTheLowestBoundOfTheFrontier() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(12, 1000, 7));
+        final IntermediateProblem root = new IntermediateProblem(graph, graph.getNodeById(1));
+        final BranchAndBound bestFirst = new BranchAndBound(graph, graph.getNodeById(1), 1, "BestFS");
+        final BranchAndBound lastInFirstOut = new BranchAndBound(graph, graph.getNodeById(1), 1, "DFS");
+        try {
+            bestFirst.clearFrontier();
+            lastInFirstOut.clearFrontier();
+            assertEquals(Integer.MAX_VALUE, bestFirst.globalLowerBound());
+
+            assertTrue(bestFirst.generateBranches(root) > 0);
+            lastInFirstOut.generateBranches(root);
+
+            //the head of the best-first queue and the scan of the LIFO queue see the same children
+            assertEquals(bestFirst.globalLowerBound(), lastInFirstOut.globalLowerBound());
+            assertTrue(bestFirst.globalLowerBound() >= root.getBound());
+        } finally {
+            bestFirst.close();
+            lastInFirstOut.close();
+        }
+    }
+
+    private static Solution solve(Graph graph, String policy, int threads, int absoluteGap) throws Exception {
+        final BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy);
+        branchAndBound.IfErrorThenTerminate = false;
+        branchAndBound.setGapTolerance(0, absoluteGap);
+        try {
+            return branchAndBound.processTask(false, threads);
+        } finally {
+            branchAndBound.close();
+        }
+    }
+}
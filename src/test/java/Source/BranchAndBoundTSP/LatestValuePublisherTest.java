@@ -0,0 +1,127 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Subscribers of the publisher receive the latest item, never an older one after a newer one,
+ * and are completed on close; the solver publishes every improving tour, the optimum last.
+ */
+class LatestValuePublisherTest {
+
+    @Test
+    void slowSubscriberOnlyReceivesTheLatestItem() throws Exception {
+        final LatestValuePublisher<Integer> publisher = new LatestValuePublisher<>();
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        final Flow.Subscription subscription = subscriber.subscription.poll(10, TimeUnit.SECONDS);
+
+        //nothing is requested yet: the items replace each other
+        for (int item = 1; item <= 100; item++) {
+            publisher.offer(item);
+        }
+        subscription.request(1);
+        assertEquals("100", subscriber.signals.poll(10, TimeUnit.SECONDS));
+
+        publisher.offer(101);
+        assertNull(subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+        subscription.request(5);
+        assertEquals("101", subscriber.signals.poll(10, TimeUnit.SECONDS));
+
+        publisher.close();
+        assertEquals("complete", subscriber.signals.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void nonPositiveRequestIsAnError() throws Exception {
+        final LatestValuePublisher<Integer> publisher = new LatestValuePublisher<>();
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.poll(10, TimeUnit.SECONDS).request(0);
+
+        assertEquals("error IllegalArgumentException", subscriber.signals.poll(10, TimeUnit.SECONDS));
+        publisher.offer(1);
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    void consumerSeesIncreasingItemsEndingWithTheLast() throws Exception {
+        final LatestValuePublisher<Integer> publisher = new LatestValuePublisher<>();
+        final List<Integer> received = new ArrayList<>();
+        final AtomicReference<Throwable> outOfOrder = new AtomicReference<>();
+        final CompletableFuture<Void> done = publisher.consume(item -> {
+            if (!received.isEmpty() && item <= received.get(received.size() - 1)) {
+                outOfOrder.set(new AssertionError(item + " after " + received));
+            }
+            received.add(item);
+        });
+        for (int item = 1; item <= 10_000; item++) {
+            publisher.offer(item);
+        }
+        publisher.close();
+
+        done.get(10, TimeUnit.SECONDS);
+        assertNull(outOfOrder.get());
+        assertEquals(10_000, received.get(received.size() - 1));
+    }
+
+    @Test
+    void solverPublishesImprovingToursEndingWithTheOptimum() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.circle(10, 4));
+        final List<Integer> costs = new ArrayList<>();
+        final CompletableFuture<Void> done;
+        final Solution solution;
+        try (BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), 2, "DFS")) {
+            branchAndBound.IfErrorThenTerminate = false;
+            done = branchAndBound.addIncumbentListener(incumbent -> costs.add(incumbent.getCost()));
+            solution = branchAndBound.processTask(false, 2);
+        }
+
+        done.get(10, TimeUnit.SECONDS);
+        assertEquals(solution.getValueOfCost(), costs.get(costs.size() - 1));
+        for (int i = 1; i < costs.size(); i++) {
+            assertTrue(costs.get(i) < costs.get(i - 1), "not improving: " + costs);
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+        private final BlockingQueue<Flow.Subscription> subscription = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> signals = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.add(subscription);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            signals.add(String.valueOf(item));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add("error " + throwable.getClass().getSimpleName());
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add("complete");
+        }
+    }
+}
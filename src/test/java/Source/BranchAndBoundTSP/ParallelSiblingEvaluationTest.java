@@ -0,0 +1,64 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Siblings evaluated concurrently are enqueued in the order of the sequential evaluation, so a
+ * single worker visits the same tree either way and several workers find the same optimum.
+ */
+class ParallelSiblingEvaluationTest {
+
+    @ParameterizedTest
+    @CsvSource({"BestFS, 1", "BestFS, 2", "DFS, 1", "DFS, 2"})
+    void singleWorkerVisitsTheSameTree(String policy, long seed) throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(9, 1000, seed));
+
+        final Solution sequential = solve(graph, policy, 1, false);
+        final Solution parallel = solve(graph, policy, 1, true);
+
+        assertEquals(sequential.getValueOfCost(), parallel.getValueOfCost());
+        assertEquals(sequential.getNodeCountTotal(), parallel.getNodeCountTotal());
+        assertEquals(sequential.getMidwayNodeCount(), parallel.getMidwayNodeCount());
+        assertEquals(sequential.getBoundClosedNodeCount(), parallel.getBoundClosedNodeCount());
+        assertEquals(sequential.getOptimalClosedNodeCount(), parallel.getOptimalClosedNodeCount());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"BestFS, 3", "DFS, 3"})
+    void severalWorkersFindTheSameOptimum(String policy, long seed) throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(10, 1000, seed));
+
+        assertEquals(solve(graph, policy, 1, false).getValueOfCost(), solve(graph, policy, 4, true).getValueOfCost());
+    }
+
+    @Test
+    void branchingCreatesTheSameChildren() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(12, 1000, 7));
+        final IntermediateProblem root = new IntermediateProblem(graph, graph.getNodeById(1));
+        try (BranchAndBound sequential = new BranchAndBound(graph, graph.getNodeById(1), 2, "BestFS");
+             BranchAndBound parallel = new BranchAndBound(graph, graph.getNodeById(1), 2, "BestFS")) {
+            parallel.setParallelSiblingEvaluation(true);
+            sequential.clearFrontier();
+            parallel.clearFrontier();
+
+            assertEquals(sequential.generateBranches(root), parallel.generateBranches(root));
+            assertEquals(sequential.getOpenProblemCount(), parallel.getOpenProblemCount());
+            assertEquals(sequential.globalLowerBound(), parallel.globalLowerBound());
+        }
+    }
+
+    private static Solution solve(Graph graph, String policy, int threads, boolean parallelSiblings) throws Exception {
+        try (BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy)) {
+            branchAndBound.IfErrorThenTerminate = false;
+            branchAndBound.setParallelSiblingEvaluation(parallelSiblings);
+            return branchAndBound.processTask(false, threads);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The profiler hands out at most one set of histograms per concurrent task and loses no value.
+ */
+class PhaseProfilerTest {
+
+    @Test
+    void histogramSetsAreReusedByLaterTasks() throws Exception {
+        final PhaseProfiler profiler = new PhaseProfiler();
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                tasks.add(pool.submit(() -> {
+                    LatencyHistogram[] timings = profiler.acquire();
+                    try {
+                        PhaseProfiler.record(timings, SearchPhase.GraphCopy, System.nanoTime() - 1000);
+                    } finally {
+                        profiler.release(timings);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(profiler.getHistogramSetCount() <= 4, "sets: " + profiler.getHistogramSetCount());
+        assertEquals(1000, profiler.merge().get(SearchPhase.GraphCopy).getCount());
+        assertEquals(0, profiler.merge().get(SearchPhase.MinimumSpanningTree).getCount());
+    }
+
+    @Test
+    void everySubProblemIsTimedOnce() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(9, 1000, 7));
+        final BranchAndBound branchAndBound = new BranchAndBound(graph, null, 4, "BestFS");
+        branchAndBound.setParallelSiblingEvaluation(true);
+        branchAndBound.IfErrorThenTerminate = false;
+        final Solution solution;
+        try {
+            solution = branchAndBound.processTask(false, 4);
+        } finally {
+            branchAndBound.close();
+        }
+
+        //the root and every child build exactly one minimum spanning tree
+        assertEquals(solution.getNodeCountTotal(), solution.getPhaseLatency(SearchPhase.MinimumSpanningTree).getCount());
+        //four workers and at most four sibling evaluations at a time
+        assertTrue(branchAndBound.getPhaseProfiler().getHistogramSetCount() <= 8,
+                "sets: " + branchAndBound.getPhaseProfiler().getHistogramSetCount());
+    }
+}
@@ -0,0 +1,61 @@
+package Source.BranchAndBoundTSP;
+
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The exporter serves the metrics of the registered solvers on localhost and stops serving once closed.
+ */
+class PrometheusExporterTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void servesTheSeriesOfARegisteredSolver() throws Exception {
+        final BranchAndBound branchAndBound = new BranchAndBound(
+                TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(9, 1000, 5)), null, 2, "BestFS");
+        branchAndBound.IfErrorThenTerminate = false;
+        final Solution solution;
+        final URI metrics;
+        try (branchAndBound; PrometheusExporter exporter = new PrometheusExporter(0)) {
+            exporter.register("uniform9", branchAndBound);
+            solution = branchAndBound.processTask(false, 2);
+            metrics = URI.create("http://localhost:" + exporter.getPort() + "/metrics");
+
+            final HttpResponse<String> response = client.send(HttpRequest.newBuilder(metrics).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+            final String body = response.body();
+            assertTrue(body.contains("# TYPE bb_subproblems_created_total counter\n"), body);
+            assertTrue(body.contains("bb_running{instance=\"uniform9\"} 0\n"), body);
+            assertTrue(body.contains("bb_subproblems_created_total{instance=\"uniform9\"} " + solution.getNodeCountTotal() + "\n"), body);
+            assertTrue(body.contains("bb_incumbent_cost{instance=\"uniform9\"} " + solution.getValueOfCost() + "\n"), body);
+            assertTrue(body.contains("bb_subproblems_closed_total{instance=\"uniform9\",reason=\"bound\"} "), body);
+            assertTrue(body.contains("bb_phase_latency_seconds_count{instance=\"uniform9\",phase=\"MinimumSpanningTree\"} "
+                    + solution.getNodeCountTotal() + "\n"), body);
+
+            final HttpResponse<Void> post = client.send(HttpRequest.newBuilder(metrics)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+            assertEquals(405, post.statusCode());
+        }
+
+        assertThrows(ConnectException.class, () -> scrape(metrics));
+    }
+
+    private void scrape(URI metrics) throws IOException, InterruptedException {
+        client.send(HttpRequest.newBuilder(metrics).build(), HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,63 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The search events are only created while a recording has them enabled; a recording still
+ * receives every kind of them.
+ */
+class SearchEventsTest {
+
+    private static final Set<String> EVENTS = Set.of(
+            "Source.BranchAndBoundTSP.QueueWait", "Source.BranchAndBoundTSP.Branch",
+            "Source.BranchAndBoundTSP.Prune", "Source.BranchAndBoundTSP.Incumbent",
+            "Source.BranchAndBoundTSP.OneTree");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordingReceivesEveryEvent() throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(8, 1000, 5));
+        final Path dump = directory.resolve("search.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.start();
+            solve(graph);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        final Set<String> recorded = new HashSet<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            recorded.add(event.getEventType().getName());
+        }
+        recorded.retainAll(EVENTS);
+        assertEquals(EVENTS, recorded);
+    }
+
+    private static void solve(Graph graph) throws Exception {
+        final BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), 2, "BestFS");
+        branchAndBound.IfErrorThenTerminate = false;
+        try {
+            branchAndBound.processTask(false, 2);
+        } finally {
+            branchAndBound.close();
+        }
+    }
+}
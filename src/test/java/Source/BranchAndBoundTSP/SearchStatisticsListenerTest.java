@@ -0,0 +1,55 @@
+package Source.BranchAndBoundTSP;
+
+import Source.Datastructures.Graph.Graph;
+import Source.TSPLIBGraphGenerator;
+import Source.TSPLib.generator.InstanceGenerator;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * After a search the counters of the listener, summed over the workers, match the node counts of
+ * the Solution: every node is dequeued once and then branched, pruned or taken as an incumbent.
+ */
+class SearchStatisticsListenerTest {
+
+    @ParameterizedTest
+    @CsvSource({"BestFS, 1", "BestFS, 4", "DFS, 1", "DFS, 4"})
+    void countsMatchTheSolution(String policy, int threads) throws Exception {
+        final Graph graph = TSPLIBGraphGenerator.createGraph(InstanceGenerator.uniform(9, 1000, 3));
+        final SearchStatisticsListener statistics = new SearchStatisticsListener();
+        final SearchStatisticsListener composed = new SearchStatisticsListener();
+        final Solution solution;
+        try (BranchAndBound branchAndBound = new BranchAndBound(graph, graph.getNodeById(1), threads, policy)) {
+            branchAndBound.IfErrorThenTerminate = false;
+            branchAndBound.addSearchListener(statistics);
+            branchAndBound.addSearchListener(composed);
+            solution = branchAndBound.processTask(false, threads);
+        }
+        final SearchStatisticsListener.Snapshot snapshot = statistics.snapshot();
+
+        assertEquals(Solution.TerminationReason.Completed, solution.getTerminationReason());
+        assertEquals(solution.getNodeCountTotal(), snapshot.getDequeued());
+        assertEquals(solution.getNodeCountTotal() - 1, snapshot.getChildren());
+        assertEquals(solution.getMidwayNodeCount(), snapshot.getBranched());
+        assertEquals(solution.getOptimalClosedNodeCount(), snapshot.getIncumbents());
+        assertEquals(solution.getUnfeasibleClosedNodeCount(), snapshot.getPruned(SearchListener.PruneReason.Infeasible));
+        assertEquals(0, snapshot.getPruned(SearchListener.PruneReason.GapTolerance));
+        //non-improving tours are pruned for bound as well
+        assertTrue(snapshot.getPruned(SearchListener.PruneReason.Bound) >= solution.getBoundClosedNodeCount());
+        assertEquals(snapshot.getDequeued(), snapshot.getBranched() + snapshot.getIncumbents()
+                + snapshot.getPruned(SearchListener.PruneReason.Bound)
+                + snapshot.getPruned(SearchListener.PruneReason.Infeasible));
+
+        final int rootBound = new IntermediateProblem(graph, graph.getNodeById(1)).getBound();
+        assertEquals(rootBound, snapshot.getLowestBound());
+        assertTrue(snapshot.getHighestBound() >= rootBound);
+        //every listener added sees the same events
+        final SearchStatisticsListener.Snapshot other = composed.snapshot();
+        assertEquals(snapshot.getDequeued(), other.getDequeued());
+        assertEquals(snapshot.getBranched(), other.getBranched());
+        assertEquals(snapshot.getIncumbents(), other.getIncumbents());
+    }
+}
@@ -0,0 +1,123 @@
+package Source.Datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Order, bulk operations, the lock-free size and the taken count of the two frontier queues.
+ */
+class FrontierQueueTest {
+
+    @Test
+    void lifoQueueHandsOutTheLastElementFirst() throws InterruptedException {
+        final LifoBlockingQueue<Integer> queue = new LifoBlockingQueue<>();
+        queue.add(1);
+        queue.addAll(Arrays.asList(2, 3, 4));
+
+        assertEquals(4, queue.size());
+        assertEquals(4, queue.poll(10, TimeUnit.MILLISECONDS));
+        final List<Integer> batch = new ArrayList<>();
+        assertEquals(2, queue.drainTo(batch, 2));
+        assertEquals(Arrays.asList(3, 2), batch);
+        assertEquals(1, queue.size());
+        assertEquals(1, queue.take());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+        assertEquals(4, queue.getTakenCount());
+    }
+
+    @Test
+    void bestFirstQueueHandsOutTheSmallestElementFirst() throws InterruptedException {
+        final BestFirstBlockingQueue<Integer> queue = new BestFirstBlockingQueue<>();
+        queue.addAll(Arrays.asList(5, 1, 4));
+        queue.add(2);
+        queue.add(3);
+
+        assertEquals(5, queue.size());
+        assertEquals(1, queue.poll(10, TimeUnit.MILLISECONDS));
+        final List<Integer> batch = new ArrayList<>();
+        assertEquals(3, queue.drainTo(batch, 3));
+        assertEquals(Arrays.asList(2, 3, 4), batch);
+        assertTrue(queue.remove(5));
+        assertEquals(0, queue.size());
+        assertEquals(5, queue.getTakenCount());
+        assertNull(queue.poll());
+        assertEquals(5, queue.getTakenCount());
+    }
+
+    @Test
+    void sizeCountsTheElementsAddedBeforeANullOne() {
+        final LifoBlockingQueue<Integer> lifo = new LifoBlockingQueue<>();
+        assertThrows(NullPointerException.class, () -> lifo.addAll(Arrays.asList(1, 2, null)));
+        assertEquals(2, lifo.size());
+
+        final BestFirstBlockingQueue<Integer> bestFirst = new BestFirstBlockingQueue<>();
+        assertThrows(NullPointerException.class, () -> bestFirst.addAll(Arrays.asList(1, null)));
+        assertEquals(1, bestFirst.size());
+    }
+
+    @Test
+    void concurrentBatchesLoseNoElement() throws Exception {
+        checkConcurrentBatches(new LifoBlockingQueue<>());
+        checkConcurrentBatches(new BestFirstBlockingQueue<>());
+    }
+
+    private static void checkConcurrentBatches(BlockingQueue<Integer> queue) throws Exception {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final long count = (long) producers * perProducer;
+        final AtomicLong taken = new AtomicLong();
+        final ExecutorService pool = Executors.newFixedThreadPool(2 * producers);
+        try {
+            final List<Future<Long>> consumed = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int first = p * perProducer;
+                pool.submit(() -> {
+                    for (int i = 0; i < perProducer; i += 4) {
+                        queue.addAll(Arrays.asList(first + i, first + i + 1, first + i + 2, first + i + 3));
+                    }
+                });
+                consumed.add(pool.submit(() -> {
+                    long sum = 0;
+                    List<Integer> batch = new ArrayList<>();
+                    while (taken.get() < count) {
+                        Integer head = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (head == null) {
+                            continue;
+                        }
+                        batch.add(head);
+                        queue.drainTo(batch, 7);
+                        for (int value : batch) {
+                            sum += value;
+                        }
+                        taken.addAndGet(batch.size());
+                        batch.clear();
+                    }
+                    return sum;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> sum : consumed) {
+                total += sum.get();
+            }
+            assertEquals(count * (count - 1) / 2, total);
+            assertEquals(0, queue.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
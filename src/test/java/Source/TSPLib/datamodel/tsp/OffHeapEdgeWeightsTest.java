@@ -0,0 +1,111 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.datamodel.tsp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Off-heap weights read the packed triangle of a file at any offset, with the same values as the
+ * full matrix, and stay readable once the channel they were mapped from is closed.
+ */
+class OffHeapEdgeWeightsTest {
+
+    private static final int DIMENSION = 50;
+    //a header before the weights, of an odd length so that they are not aligned
+    private static final int OFFSET = 13;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(PackedEdgeWeights.Width.class)
+    void matchesTheFullMatrix(PackedEdgeWeights.Width width) throws IOException {
+        final int[][] matrix = randomMatrix(width);
+        final Path file = write(matrix, width);
+
+        final OffHeapEdgeWeights weights;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            weights = OffHeapEdgeWeights.map(channel, OFFSET, DIMENSION, width);
+        }
+
+        assertEquals(DIMENSION, weights.getDimension());
+        for (int i = 0; i < DIMENSION; i++) {
+            for (int j = 0; j < DIMENSION; j++) {
+                assertEquals(matrix[i][j], weights.getWeight(i, j), "weight " + i + "," + j);
+            }
+        }
+    }
+
+    @Test
+    void rejectsFilesEndingBeforeTheWeights() throws IOException {
+        final Path file = write(randomMatrix(PackedEdgeWeights.Width.SHORT), PackedEdgeWeights.Width.SHORT);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThrows(IOException.class, () -> OffHeapEdgeWeights.map(channel, OFFSET, DIMENSION, PackedEdgeWeights.Width.INT));
+            assertThrows(IOException.class, () -> OffHeapEdgeWeights.map(channel, OFFSET, DIMENSION + 1, PackedEdgeWeights.Width.SHORT));
+        }
+    }
+
+    private Path write(int[][] matrix, PackedEdgeWeights.Width width) throws IOException {
+        final Path file = directory.resolve(width + ".weights");
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(stream)) {
+            out.write(new byte[OFFSET]);
+            for (int i = 0; i < DIMENSION; i++) {
+                for (int j = i + 1; j < DIMENSION; j++) {
+                    width.write(out, matrix[i][j]);
+                }
+            }
+        }
+        return file;
+    }
+
+    private static int[][] randomMatrix(PackedEdgeWeights.Width width) {
+        final Random random = new Random(width.ordinal());
+        final int[][] matrix = new int[DIMENSION][DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            for (int j = i + 1; j < DIMENSION; j++) {
+                switch (width) {
+                    case CHAR:
+                        matrix[i][j] = random.nextInt(Character.MAX_VALUE + 1);
+                        break;
+                    case SHORT:
+                        matrix[i][j] = Short.MIN_VALUE + random.nextInt(1 << 16);
+                        break;
+                    default:
+                        matrix[i][j] = random.nextInt();
+                }
+                matrix[j][i] = matrix[i][j];
+            }
+        }
+        return matrix;
+    }
+}
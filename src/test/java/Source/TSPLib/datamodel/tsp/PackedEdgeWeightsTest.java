@@ -0,0 +1,126 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.datamodel.tsp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The packed triangle holds the weights of the full symmetric matrix in the narrowest width,
+ * and its positions enumerate the upper triangle row after row.
+ */
+class PackedEdgeWeightsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 65535, CHAR",
+            "-5, 32767, SHORT",
+            "0, 32768, CHAR",
+            "-1, 40000, INT",
+            "0, 100000, INT"
+    })
+    void matchesTheFullMatrix(int min, int max, PackedEdgeWeights.Width width) {
+        final int dimension = 30;
+        final int[][] matrix = randomMatrix(dimension, min, max);
+        final int[] triangle = PackedEdgeWeights.newTriangle(dimension);
+        for (int i = 0; i < dimension; i++) {
+            for (int j = i + 1; j < dimension; j++) {
+                triangle[PackedEdgeWeights.index(dimension, i, j)] = matrix[i][j];
+            }
+        }
+
+        final PackedEdgeWeights packed = new PackedEdgeWeights(dimension, triangle);
+
+        assertEquals(width, PackedEdgeWeights.Width.of(min, max));
+        assertEquals(dimension, packed.getDimension());
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                assertEquals(matrix[i][j], packed.getWeight(i, j), "weight " + i + "," + j);
+            }
+        }
+    }
+
+    @Test
+    void indicesEnumerateTheUpperTriangle() {
+        final int dimension = 17;
+        int expected = 0;
+        for (int i = 0; i < dimension; i++) {
+            for (int j = i + 1; j < dimension; j++) {
+                assertEquals(expected, PackedEdgeWeights.index(dimension, i, j));
+                assertEquals(expected, PackedEdgeWeights.index(dimension, j, i));
+                expected++;
+            }
+        }
+        assertEquals(expected, PackedEdgeWeights.newTriangle(dimension).length);
+
+        //past the range of an int, as in the triangles of off-heap weights
+        final int large = 100_000;
+        assertEquals((long) large * (large - 1) / 2 - 1, PackedEdgeWeights.longIndex(large, large - 1, large - 2));
+    }
+
+    @Test
+    void rejectsTrianglesOfTheWrongSize() {
+        assertFalse(PackedEdgeWeights.fits(70_000));
+        assertTrue(PackedEdgeWeights.fits(60_000));
+        assertThrows(IllegalArgumentException.class, () -> PackedEdgeWeights.newTriangle(70_000));
+        assertThrows(IllegalArgumentException.class, () -> new PackedEdgeWeights(5, new int[9]));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"CHAR, 0, 65535", "SHORT, -32768, 32767", "INT, -100000, 100000"})
+    void widthsReadWhatTheyWrite(PackedEdgeWeights.Width width, int min, int max) throws IOException {
+        final int[] weights = {min, 0, 1, max, max - 1};
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int weight : weights) {
+                width.write(out, weight);
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+
+        assertEquals(weights.length * width.getBytes(), buffer.capacity());
+        for (int k = 0; k < weights.length; k++) {
+            assertEquals(weights[k], width.get(buffer, k * width.getBytes()));
+        }
+    }
+
+    private static int[][] randomMatrix(int dimension, int min, int max) {
+        final Random random = new Random(dimension);
+        final int[][] matrix = new int[dimension][dimension];
+        for (int i = 0; i < dimension; i++) {
+            for (int j = i + 1; j < dimension; j++) {
+                matrix[i][j] = min + random.nextInt(max - min + 1);
+                matrix[j][i] = matrix[i][j];
+            }
+        }
+        //both ends of the range, so that the width is the one expected
+        matrix[0][1] = matrix[1][0] = min;
+        matrix[0][2] = matrix[2][0] = max;
+        return matrix;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.parser;
+
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * An instance loaded from its cache equals the parsed text, whatever the layout of its weights,
+ * and a cache that no longer matches its source file is ignored and rebuilt.
+ */
+class TspCacheTest {
+
+    private static final int DIMENSION = 40;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("tsplib.cache");
+        System.clearProperty("tsplib.packedWeights");
+        System.clearProperty("tsplib.offHeapWeights");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "FULL_MATRIX, true, false, MatrixEdgeWeights",
+            "ASYMMETRIC, true, false, MatrixEdgeWeights",
+            "UPPER_ROW, false, false, MatrixEdgeWeights",
+            "UPPER_ROW, true, false, PackedEdgeWeights",
+            "LOWER_DIAG_ROW, true, false, PackedEdgeWeights",
+            "UPPER_ROW, true, true, OffHeapEdgeWeights",
+            "FULL_MATRIX, true, true, OffHeapEdgeWeights",
+            "EUC_2D, true, false, MatrixEdgeWeights"
+    })
+    void roundTripEqualsTheParsedText(String format, boolean packed, boolean offHeap, String weightsClass) throws IOException {
+        System.setProperty("tsplib.packedWeights", Boolean.toString(packed));
+        System.setProperty("tsplib.offHeapWeights", Boolean.toString(offHeap));
+        final Path source = write(format, 1);
+
+        final Tsp parsed = parseWithoutCache(source);
+        final Tsp first = TspLibParser.parseTsp(source.toString());
+        assertTrue(Files.exists(TspCache.cachePath(source)));
+        final Tsp cached = TspCache.read(source);
+        assertNotNull(cached);
+
+        assertSameInstance(parsed, first);
+        assertSameInstance(parsed, cached);
+        assertSameInstance(parsed, TspLibParser.parseTsp(source.toString()));
+        assertEquals(weightsClass, cached.getEdgeWeights().orElseThrow().getClass().getSimpleName());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"FULL_MATRIX, false", "UPPER_ROW, false", "UPPER_ROW, true", "EUC_2D, false"})
+    void staleCacheIsRebuilt(String format, boolean offHeap) throws IOException {
+        System.setProperty("tsplib.offHeapWeights", Boolean.toString(offHeap));
+        final Path source = write(format, 1);
+        TspLibParser.parseTsp(source.toString());
+        final FileTime modified = Files.getLastModifiedTime(source);
+
+        //other weights and a later modification time, as when the file is edited
+        write(format, 2);
+        Files.setLastModifiedTime(source, FileTime.fromMillis(modified.toMillis() + 2000));
+        assertNull(TspCache.read(source));
+
+        final Tsp after = TspLibParser.parseTsp(source.toString());
+        final Tsp parsed = parseWithoutCache(source);
+        assertSameInstance(parsed, after);
+        assertTrue(after.getComment().contains("seed 2"));
+        assertSameInstance(parsed, TspCache.read(source));
+    }
+
+    @Test
+    void damagedCacheIsIgnored() throws IOException {
+        final Path source = write("UPPER_ROW", 1);
+        TspLibParser.parseTsp(source.toString());
+        final Path cache = TspCache.cachePath(source);
+        final byte[] bytes = Files.readAllBytes(cache);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(cache, bytes);
+
+        assertNull(TspCache.read(source));
+        assertSameInstance(parseWithoutCache(source), TspLibParser.parseTsp(source.toString()));
+    }
+
+    @Test
+    void disabledCacheIsNotWritten() throws IOException {
+        System.setProperty("tsplib.cache", "false");
+        final Path source = write("UPPER_ROW", 1);
+        TspLibParser.parseTsp(source.toString());
+
+        assertTrue(Files.notExists(TspCache.cachePath(source)));
+    }
+
+    private static Tsp parseWithoutCache(Path source) {
+        System.setProperty("tsplib.cache", "false");
+        try {
+            return TspLibParser.parseTsp(source.toString());
+        } finally {
+            System.clearProperty("tsplib.cache");
+        }
+    }
+
+    private static void assertSameInstance(Tsp expected, Tsp actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getComment(), actual.getComment());
+        assertEquals(expected.getEdgeWeightType(), actual.getEdgeWeightType());
+        assertEquals(expected.getEdgeWeightFormat(), actual.getEdgeWeightFormat());
+        assertEquals(expected.getDimension(), actual.getDimension());
+        assertEquals(expected.getNodes(), actual.getNodes());
+        final EdgeWeights expectedWeights = expected.getEdgeWeights().orElseThrow();
+        final EdgeWeights actualWeights = actual.getEdgeWeights().orElseThrow();
+        for (int i = 0; i < DIMENSION; i++) {
+            for (int j = 0; j < DIMENSION; j++) {
+                assertEquals(expectedWeights.getWeight(i, j), actualWeights.getWeight(i, j), "weight " + i + "," + j);
+            }
+        }
+    }
+
+    /**
+     * Writes an instance of the given format, EUC_2D or ASYMMETRIC for a FULL_MATRIX ATSP,
+     * with weights drawn from the seed.
+     */
+    private Path write(String format, long seed) throws IOException {
+        final Random random = new Random(seed);
+        final StringBuilder file = new StringBuilder("NAME: cached\nCOMMENT: seed ").append(seed).append('\n');
+        if (format.equals("EUC_2D")) {
+            file.append("TYPE: TSP\nDIMENSION: ").append(DIMENSION).append("\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n");
+            for (int i = 1; i <= DIMENSION; i++) {
+                file.append(i).append(' ').append(random.nextInt(1000)).append(' ').append(random.nextInt(1000)).append('\n');
+            }
+        } else {
+            final boolean asymmetric = format.equals("ASYMMETRIC");
+            final int[][] weights = new int[DIMENSION][DIMENSION];
+            for (int i = 0; i < DIMENSION; i++) {
+                for (int j = 0; j < DIMENSION; j++) {
+                    if (i != j && (asymmetric || j > i)) {
+                        weights[i][j] = 1 + random.nextInt(500);
+                        if (!asymmetric) {
+                            weights[j][i] = weights[i][j];
+                        }
+                    }
+                }
+            }
+            file.append("TYPE: ").append(asymmetric ? "ATSP" : "TSP").append("\nDIMENSION: ").append(DIMENSION)
+                    .append("\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: ").append(asymmetric ? "FULL_MATRIX" : format)
+                    .append("\nEDGE_WEIGHT_SECTION\n");
+            for (int i = 0; i < DIMENSION; i++) {
+                for (int j = 0; j < DIMENSION; j++) {
+                    if (inSection(asymmetric ? "FULL_MATRIX" : format, i, j)) {
+                        file.append(weights[i][j]).append(' ');
+                    }
+                }
+                file.append('\n');
+            }
+        }
+        final Path source = directory.resolve("cached.tsp");
+        Files.write(source, file.append("EOF\n").toString().getBytes(StandardCharsets.US_ASCII));
+        return source;
+    }
+
+    private static boolean inSection(String format, int row, int column) {
+        switch (format) {
+            case "UPPER_ROW":
+                return column > row;
+            case "LOWER_DIAG_ROW":
+                return column <= row;
+            default:
+                return true;
+        }
+    }
+}
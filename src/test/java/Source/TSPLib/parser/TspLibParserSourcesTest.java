@@ -0,0 +1,170 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.parser;
+
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A file gives the same instance whether it is memory-mapped, gunzipped, or read from a stream or
+ * a channel through the window of the tokenizer, which is how files over 2 GB are read.
+ */
+class TspLibParserSourcesTest {
+
+    private static final int DIMENSION = 200;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void disableCache() {
+        System.setProperty("tsplib.cache", "false");
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("tsplib.cache");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void everySourceGivesTheMappedInstance(boolean explicit) throws IOException {
+        final byte[] content = (explicit ? explicitFile() : coordinateFile()).getBytes(StandardCharsets.US_ASCII);
+        final Path file = directory.resolve("instance.tsp");
+        Files.write(file, content);
+        final Path gzip = directory.resolve("instance.tsp.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            out.write(content);
+        }
+
+        final Tsp mapped = TspLibParser.parseTsp(file.toString());
+        assertSameInstance(mapped, TspLibParser.parseTsp(gzip.toString()));
+        assertSameInstance(mapped, TspLibParser.parseTsp(new ByteArrayInputStream(content)));
+        assertSameInstance(mapped, TspLibParser.parseTsp(new TrickleChannel(content, 7)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertSameInstance(mapped, TspLibParser.parseTsp(channel));
+        }
+    }
+
+    @Test
+    void rejectsNonBlockingChannels() throws IOException {
+        final Pipe pipe = Pipe.open();
+        try (Pipe.SourceChannel source = pipe.source(); Pipe.SinkChannel sink = pipe.sink()) {
+            source.configureBlocking(false);
+            assertThrows(IllegalArgumentException.class, () -> TspLibParser.parseTsp(source));
+        }
+    }
+
+    private static void assertSameInstance(Tsp expected, Tsp actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDimension(), actual.getDimension());
+        assertEquals(expected.getEdgeWeightType(), actual.getEdgeWeightType());
+        assertEquals(expected.getNodes(), actual.getNodes());
+        final EdgeWeights expectedWeights = expected.getEdgeWeights().orElseThrow();
+        final EdgeWeights actualWeights = actual.getEdgeWeights().orElseThrow();
+        for (int i = 0; i < DIMENSION; i++) {
+            for (int j = 0; j < DIMENSION; j++) {
+                if (i != j) {
+                    assertEquals(expectedWeights.getWeight(i, j), actualWeights.getWeight(i, j), "weight " + i + "," + j);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return an EUC_2D instance, one node per line
+     */
+    private static String coordinateFile() {
+        final Random random = new Random(11);
+        final StringBuilder file = new StringBuilder("NAME: coordinates\r\nTYPE: TSP\r\nDIMENSION: " + DIMENSION
+                + "\r\nEDGE_WEIGHT_TYPE: EUC_2D\r\nNODE_COORD_SECTION\r\n");
+        for (int i = 1; i <= DIMENSION; i++) {
+            file.append(i).append(' ').append(random.nextInt(10000)).append(".5 ").append(random.nextInt(10000)).append("\r\n");
+        }
+        return file.append("EOF\r\n").toString();
+    }
+
+    /**
+     * @return an UPPER_ROW instance whose whole section is one line, longer than the window of the tokenizer
+     */
+    private static String explicitFile() {
+        final Random random = new Random(13);
+        final StringBuilder file = new StringBuilder("NAME: explicit\nTYPE: TSP\nDIMENSION: " + DIMENSION
+                + "\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: UPPER_ROW\nEDGE_WEIGHT_SECTION\n");
+        for (int i = 0; i < DIMENSION * (DIMENSION - 1) / 2; i++) {
+            file.append(' ').append(1000 + random.nextInt(9000));
+        }
+        return file.append("\nEOF\n").toString();
+    }
+
+    /**
+     * A channel that reads at most a few bytes at a time, so that lines and values straddle the reads.
+     */
+    private static final class TrickleChannel implements ReadableByteChannel {
+        private final ByteBuffer content;
+        private final int chunk;
+
+        TrickleChannel(byte[] content, int chunk) {
+            this.content = ByteBuffer.wrap(content);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) {
+            if (!content.hasRemaining()) {
+                return -1;
+            }
+            final int length = Math.min(chunk, Math.min(content.remaining(), destination.remaining()));
+            final ByteBuffer slice = content.slice();
+            slice.limit(length);
+            destination.put(slice);
+            content.position(content.position() + length);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
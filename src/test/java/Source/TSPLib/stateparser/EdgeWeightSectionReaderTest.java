@@ -0,0 +1,132 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.stateparser;
+
+import Source.TSPLib.datamodel.tsp.EdgeWeights;
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.EdgeWeightFormat;
+import Source.TSPLib.parser.TspLibParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The parallel reader of EDGE_WEIGHT_SECTION places the values by their position in the section;
+ * the sequential reader of {@link DataBuffer} must do the same, whatever the line breaks and
+ * with zero weights off the diagonal.
+ */
+class EdgeWeightSectionReaderTest {
+
+    //symmetric, with zero weights off the diagonal
+    private static final int[][] WEIGHTS = {
+            {0, 0, 3, 4, 5},
+            {0, 0, 0, 7, 8},
+            {3, 0, 0, 9, 0},
+            {4, 7, 9, 0, 6},
+            {5, 8, 0, 6, 0}
+    };
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("tsplib.cache");
+        System.clearProperty("tsplib.packedWeights");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "UPPER_ROW, true", "UPPER_ROW, false",
+            "LOWER_ROW, true", "LOWER_ROW, false",
+            "UPPER_DIAG_ROW, true", "UPPER_DIAG_ROW, false",
+            "LOWER_DIAG_ROW, true", "LOWER_DIAG_ROW, false"
+    })
+    void sequentialAndParallelReadersAgree(EdgeWeightFormat format, boolean packed) throws IOException {
+        System.setProperty("tsplib.cache", "false");
+        System.setProperty("tsplib.packedWeights", Boolean.toString(packed));
+        final String content = tspFile(format);
+        final Path file = directory.resolve(format + ".tsp");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+
+        final Tsp sequential = TspLibParser.parseTsp(new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)));
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final Tsp parallel;
+        try {
+            parallel = TspLibParser.parseTsp(file.toString(), pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertWeights(sequential);
+        assertWeights(parallel);
+    }
+
+    private static void assertWeights(Tsp tsp) {
+        final EdgeWeights edgeWeights = tsp.getEdgeWeights().orElseThrow();
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            for (int j = 0; j < WEIGHTS.length; j++) {
+                if (i != j) {
+                    assertEquals(WEIGHTS[i][j], edgeWeights.getWeight(i, j), "weight " + i + "," + j);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the instance in the given format, three values per line so that lines and rows differ
+     */
+    private static String tspFile(EdgeWeightFormat format) {
+        final StringBuilder file = new StringBuilder()
+                .append("NAME: zeros\nTYPE: TSP\nDIMENSION: ").append(WEIGHTS.length)
+                .append("\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: ").append(format)
+                .append("\nEDGE_WEIGHT_SECTION\n");
+        int count = 0;
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            for (int j = 0; j < WEIGHTS.length; j++) {
+                if (inSection(format, i, j)) {
+                    file.append(WEIGHTS[i][j]).append(++count % 3 == 0 ? '\n' : ' ');
+                }
+            }
+        }
+        return file.append("\nEOF\n").toString();
+    }
+
+    private static boolean inSection(EdgeWeightFormat format, int row, int column) {
+        switch (format) {
+            case UPPER_ROW:
+                return column > row;
+            case LOWER_ROW:
+                return column < row;
+            case UPPER_DIAG_ROW:
+                return column >= row;
+            case LOWER_DIAG_ROW:
+                return column <= row;
+            default:
+                return true;
+        }
+    }
+}
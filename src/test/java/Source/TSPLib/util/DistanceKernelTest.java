@@ -0,0 +1,131 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.util;
+
+import Source.TSPLib.datamodel.tsp.Tsp;
+import Source.TSPLib.datamodel.types.EdgeWeightType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every way of computing coordinate weights gives the weights of the per node functions: the index
+ * kernels, the tiled matrix on the calling thread and on a pool, and the rows of
+ * {@link CoordinateEdgeWeights}. Built with -Pvector, the same checks cover the vector kernels.
+ */
+class DistanceKernelTest {
+
+    //more than a tile of mirrored rows, and not a multiple of any vector length
+    private static final int DIMENSION = 150;
+
+    @ParameterizedTest
+    @EnumSource(value = EdgeWeightType.class, names = {"EUC_2D", "CEIL_2D", "MAN_2D", "MAX_2D", "GEO", "ATT"})
+    void everyKernelGivesTheScalarWeights(EdgeWeightType type) {
+        final List<Tsp.Node> nodes = nodes(type, 11);
+        final int[][] reference = reference(type, nodes);
+
+        final double[] x = new double[DIMENSION];
+        final double[] y = new double[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            x[i] = nodes.get(i).getX();
+            y[i] = nodes.get(i).getY();
+        }
+        final IntBinaryOperator kernel = EdgeWeightCalculationMethodFactory.getEdgeWeightKernel(type, x, y);
+        for (int i = 0; i < DIMENSION; i++) {
+            for (int j = 0; j < DIMENSION; j++) {
+                if (i != j) {
+                    assertEquals(reference[i][j], kernel.applyAsInt(i, j), "kernel " + i + "," + j);
+                }
+            }
+        }
+
+        assertMatrix(reference, EdgeWeightCalculationMethodFactory.createMatrix(type, nodes, DIMENSION, null));
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertMatrix(reference, EdgeWeightCalculationMethodFactory.createMatrix(type, nodes, DIMENSION, pool));
+        } finally {
+            pool.shutdown();
+        }
+
+        //read every pair twice, so that the second miss of a row fills it with the row kernel
+        final CoordinateEdgeWeights weights = new CoordinateEdgeWeights(type, nodes, DIMENSION, 8);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < DIMENSION; i++) {
+                for (int j = 0; j < DIMENSION; j++) {
+                    assertEquals(reference[i][j], weights.getWeight(i, j), "cached " + i + "," + j);
+                }
+            }
+        }
+    }
+
+    @Test
+    void vectorKernelsAreUsedWhenCompiledAndResolved() {
+        boolean compiled;
+        try {
+            Class.forName("Source.TSPLib.util.VectorDistanceKernels");
+            compiled = true;
+        } catch (ClassNotFoundException e) {
+            compiled = false;
+        }
+        final boolean resolved = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(compiled && resolved && !"false".equalsIgnoreCase(System.getProperty("tsplib.vector")),
+                EdgeWeightCalculationMethodFactory.usesVectorKernels());
+    }
+
+    private static void assertMatrix(int[][] reference, int[][] matrix) {
+        for (int i = 0; i < DIMENSION; i++) {
+            assertArrayEquals(reference[i], matrix[i], "row " + i);
+        }
+    }
+
+    private static int[][] reference(EdgeWeightType type, List<Tsp.Node> nodes) {
+        final BiFunction<Tsp.Node, Tsp.Node, Integer> function =
+                EdgeWeightCalculationMethodFactory.getEdgeWeightCalculationMethod(type);
+        final int[][] reference = new int[DIMENSION][DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            for (int j = 0; j < DIMENSION; j++) {
+                reference[i][j] = i == j ? 0 : function.apply(nodes.get(i), nodes.get(j));
+            }
+        }
+        return reference;
+    }
+
+    /**
+     * @return coordinates with decimals, in degrees and minutes for GEO
+     */
+    private static List<Tsp.Node> nodes(EdgeWeightType type, long seed) {
+        final Random random = new Random(seed);
+        final List<Tsp.Node> nodes = new ArrayList<>(DIMENSION);
+        for (int id = 1; id <= DIMENSION; id++) {
+            if (type == EdgeWeightType.GEO) {
+                nodes.add(new Tsp.Node(id, random.nextInt(35_000) / 100.0 - 175, random.nextInt(17_000) / 100.0 - 85));
+            } else {
+                nodes.add(new Tsp.Node(id, random.nextInt(100_000) / 10.0, random.nextInt(100_000) / 10.0));
+            }
+        }
+        return nodes;
+    }
+}
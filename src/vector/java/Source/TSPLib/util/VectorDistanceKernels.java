@@ -0,0 +1,114 @@
+/*
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package Source.TSPLib.util;
+
+import Source.TSPLib.datamodel.types.EdgeWeightType;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Row kernels written with the incubating Vector API, for the edge weight types whose weights
+ * only need IEEE operations: EUC_2D, CEIL_2D, MAN_2D and MAX_2D. They compute the same
+ * operations in the same order as the scalar kernels, without fused multiply-adds, so the
+ * weights are bit-identical. This class is only compiled by the vector profile (mvn -Pvector)
+ * and {@link EdgeWeightCalculationMethodFactory} only loads it, reflectively, when the JVM runs
+ * with --add-modules jdk.incubator.vector.
+ */
+final class VectorDistanceKernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    //as many int lanes as double lanes, so that a row segment converts in one step
+    private static final VectorSpecies<Integer> INTS = DOUBLES.length() < 2 ? null
+            : VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.length() * Integer.SIZE));
+
+    private VectorDistanceKernels() {
+    }
+
+    /**
+     * @param edgeWeightType type of edge weight
+     * @param x the x coordinates of the nodes
+     * @param y the y coordinates of the nodes
+     * @param scalar the scalar kernel, used for the last columns of a row
+     * @return the vectorised row kernel, or null if the type or the hardware is not supported
+     */
+    static EdgeWeightCalculationMethodFactory.RowKernel forType(EdgeWeightType edgeWeightType, double[] x, double[] y,
+                                                               IntBinaryOperator scalar) {
+        if (INTS == null) {
+            return null;
+        }
+        switch (edgeWeightType) {
+            case EUC_2D:
+                return (i, row, from) -> euclidean(i, row, from, x, y, scalar, false);
+            case CEIL_2D:
+                return (i, row, from) -> euclidean(i, row, from, x, y, scalar, true);
+            case MAN_2D:
+                return (i, row, from) -> manhattanOrMaximum(i, row, from, x, y, scalar, false);
+            case MAX_2D:
+                return (i, row, from) -> manhattanOrMaximum(i, row, from, x, y, scalar, true);
+            default:
+                return null;
+        }
+    }
+
+    private static void euclidean(int i, int[] row, int from, double[] x, double[] y, IntBinaryOperator scalar,
+                                  boolean ceil) {
+        final DoubleVector xi = DoubleVector.broadcast(DOUBLES, x[i]);
+        final DoubleVector yi = DoubleVector.broadcast(DOUBLES, y[i]);
+        int j = from;
+        final int upper = j + DOUBLES.loopBound(row.length - j);
+        for (; j < upper; j += DOUBLES.length()) {
+            DoubleVector xd = xi.sub(DoubleVector.fromArray(DOUBLES, x, j));
+            DoubleVector yd = yi.sub(DoubleVector.fromArray(DOUBLES, y, j));
+            DoubleVector distance = xd.mul(xd).add(yd.mul(yd)).lanewise(VectorOperators.SQRT).add(0.5);
+            if (ceil) {
+                //Math.ceil of a positive value: its truncation, plus one if it had a fraction
+                DoubleVector truncated = (DoubleVector) toInts(distance)
+                        .convertShape(VectorOperators.I2D, DOUBLES, 0);
+                distance = truncated.add(1.0, truncated.lt(distance));
+            }
+            toInts(distance).intoArray(row, j);
+        }
+        for (; j < row.length; j++) {
+            row[j] = scalar.applyAsInt(i, j);
+        }
+    }
+
+    private static void manhattanOrMaximum(int i, int[] row, int from, double[] x, double[] y, IntBinaryOperator scalar,
+                                           boolean maximum) {
+        final DoubleVector xi = DoubleVector.broadcast(DOUBLES, x[i]);
+        final DoubleVector yi = DoubleVector.broadcast(DOUBLES, y[i]);
+        int j = from;
+        final int upper = j + DOUBLES.loopBound(row.length - j);
+        for (; j < upper; j += DOUBLES.length()) {
+            DoubleVector xd = xi.sub(DoubleVector.fromArray(DOUBLES, x, j)).lanewise(VectorOperators.ABS);
+            DoubleVector yd = yi.sub(DoubleVector.fromArray(DOUBLES, y, j)).lanewise(VectorOperators.ABS);
+            toInts(maximum ? xd.max(yd) : xd.add(yd)).intoArray(row, j);
+        }
+        for (; j < row.length; j++) {
+            row[j] = scalar.applyAsInt(i, j);
+        }
+    }
+
+    //truncates as the (int) cast does
+    private static IntVector toInts(DoubleVector values) {
+        return (IntVector) values.convertShape(VectorOperators.D2I, INTS, 0);
+    }
+}